@@ -0,0 +1,87 @@
+package com.masingita.chatbot.benchmark;
+
+import com.masingita.chatbot.security.ApiTokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication work of the two {@code /api/**} modes, across many concurrent clients.
+ * Session mode looks up the HttpSession, checks the concurrent session registry and loads the
+ * security context from the session, as the session chain does on every call; token mode verifies
+ * and converts a signed API token. Neither includes the rest of the filter chain or the controller.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ApiAuthenticationBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private final SessionRegistryImpl sessionRegistry = new SessionRegistryImpl();
+    private final HttpSessionSecurityContextRepository contextRepository = new HttpSessionSecurityContextRepository();
+    private final MockHttpServletRequest[] sessionRequests = new MockHttpServletRequest[CLIENTS];
+    private final String[] tokens = new String[CLIENTS];
+    private JwtDecoder decoder;
+    private JwtAuthenticationConverter converter;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private int next;
+
+        int index() {
+            next = (next + 1) % CLIENTS;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        ApiTokenService tokenService = BenchmarkFixtures.apiTokenService();
+        decoder = tokenService.getDecoder();
+        converter = tokenService.authenticationConverter();
+
+        for (int i = 0; i < CLIENTS; i++) {
+            String user = "user-" + i;
+            MockHttpSession session = new MockHttpSession(null, "session-" + i);
+            session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                    new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(
+                            user, null, List.of(new SimpleGrantedAuthority("ROLE_USER")))));
+            sessionRegistry.registerNewSession(session.getId(), user);
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/chat");
+            request.setSession(session);
+            sessionRequests[i] = request;
+
+            tokens[i] = tokenService.issue(user, "chat-" + i, List.of("ROLE_USER"));
+        }
+    }
+
+    @Benchmark
+    public Authentication sessionMode(Client client) {
+        MockHttpServletRequest request = sessionRequests[client.index()];
+        SessionInformation info = sessionRegistry.getSessionInformation(request.getSession(false).getId());
+        info.refreshLastRequest();
+        return contextRepository.loadDeferredContext(request).get().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication tokenMode(Client client) {
+        return converter.convert(decoder.decode(tokens[client.index()]));
+    }
+}
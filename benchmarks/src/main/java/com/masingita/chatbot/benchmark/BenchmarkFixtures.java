@@ -0,0 +1,167 @@
+package com.masingita.chatbot.benchmark;
+
+import com.masingita.chatbot.diagnostics.TurnRecorder;
+import com.masingita.chatbot.model.CountryInfo;
+import com.masingita.chatbot.security.ApiTokenService;
+import com.masingita.chatbot.service.ChatbotService;
+import com.masingita.chatbot.service.CountryDataService;
+import com.masingita.chatbot.service.RuleBasedEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Wires the services under benchmark without a Spring context.
+ * The country API is stubbed as unavailable so every lookup takes the local-data path.
+ */
+final class BenchmarkFixtures {
+
+    static final String[] COUNTRY_NAMES = {
+            "afghanistan", "albania", "algeria", "andorra", "angola", "argentina", "armenia", "australia",
+            "austria", "azerbaijan", "bahamas", "bahrain", "bangladesh", "belgium", "benin", "bolivia",
+            "botswana", "brazil", "bulgaria", "burundi", "cambodia", "cameroon", "canada", "chad", "chile",
+            "china", "colombia", "croatia", "cuba", "cyprus", "denmark", "egypt", "eritrea", "estonia",
+            "eswatini", "ethiopia", "fiji", "finland", "france", "gabon", "gambia", "georgia", "germany",
+            "ghana", "greece", "guinea", "haiti", "hungary", "iceland", "india", "indonesia", "iran", "iraq",
+            "ireland", "israel", "italy", "jamaica", "japan", "jordan", "kenya", "lesotho", "madagascar",
+            "malawi", "mali", "mexico", "morocco", "mozambique", "namibia", "nepal", "netherlands",
+            "new zealand", "niger", "nigeria", "norway", "peru", "poland", "portugal", "rwanda", "senegal",
+            "south africa", "south korea", "south sudan", "spain", "sweden", "tanzania", "uganda",
+            "united kingdom", "united states", "zambia", "zimbabwe"
+    };
+
+    // Metrics are recorded as in production, into an in-memory registry
+    private static final MeterRegistry METER_REGISTRY = new SimpleMeterRegistry();
+    private static final TurnRecorder TURN_RECORDER = turnRecorder();
+
+    private BenchmarkFixtures() {
+    }
+
+    static CountryDataService countryDataService() {
+        CountryDataService service = new CountryDataService();
+        setField(service, "restTemplate", new UnavailableRestTemplate());
+        setField(service, "countriesApiUrl", "http://countries.invalid/v3.1");
+        setField(service, "meterRegistry", METER_REGISTRY);
+        setField(service, "turnRecorder", TURN_RECORDER);
+        setField(service, "cacheManager", new NoOpCacheManager());
+        setField(service, "batchTimeoutSeconds", 15L);
+        setField(service, "lookupExecutor", Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "country-lookup");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        Map<String, CountryInfo> localData = new HashMap<>();
+        for (String name : COUNTRY_NAMES) {
+            localData.put(name, country(name));
+        }
+        setField(service, "localCountryData", localData);
+        return service;
+    }
+
+    static ChatbotService chatbotService(CountryDataService countryDataService) {
+        ChatbotService service = new ChatbotService();
+        setField(service, "countryDataService", countryDataService);
+        setField(service, "turnRecorder", TURN_RECORDER);
+        return service;
+    }
+
+    static RuleBasedEngine ruleBasedEngine(ChatbotService chatbotService) {
+        RuleBasedEngine engine = new RuleBasedEngine();
+        setField(engine, "chatbotService", chatbotService);
+        setField(engine, "meterRegistry", METER_REGISTRY);
+        return engine;
+    }
+
+    static ApiTokenService apiTokenService() {
+        ApiTokenService service = new ApiTokenService();
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) 7);
+        setField(service, "ttlSeconds", 3600L);
+        setField(service, "maxSessionSeconds", 43200L);
+        setField(service, "issuer", "chatbot");
+        setField(service, "keySpecs", new String[] {"bench:" + Base64.getEncoder().encodeToString(secret)});
+        setField(service, "activeKeyId", "");
+        service.init();
+        return service;
+    }
+
+    private static TurnRecorder turnRecorder() {
+        TurnRecorder recorder = new TurnRecorder();
+        setField(recorder, "slowTurnThresholdMs", 500L);
+        setField(recorder, "bufferSize", 16);
+        recorder.init();
+        return recorder;
+    }
+
+    static CountryInfo country(String name) {
+        CountryInfo info = CountryInfo.builder()
+                .name(name)
+                .capital("Capital of " + name)
+                .nationalAnimal("Springbok")
+                .nationalFlower("King Protea")
+                .nationalBird("Blue Crane")
+                .languages(List.of("English", "Zulu", "Xhosa", "Afrikaans"))
+                .currencies(List.of("South African rand"))
+                .borders(List.of("BWA", "LSO", "MOZ", "NAM", "SWZ", "ZWE"))
+                .timezones(List.of("UTC+02:00"))
+                .majorCities(List.of("Johannesburg", "Cape Town", "Durban"))
+                .touristAttractions(List.of("Table Mountain", "Kruger National Park"))
+                .build();
+        info.enrichFromExternalData(externalData(name));
+        return info;
+    }
+
+    /**
+     * Shape of a restcountries v3.1 entry, trimmed to the fields the mapper reads
+     */
+    static Map<String, Object> externalData(String name) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", Map.of("common", name, "official", "Republic of " + name));
+        data.put("capital", List.of("Capital of " + name));
+        data.put("region", "Africa");
+        data.put("subregion", "Southern Africa");
+        data.put("population", 59308690);
+        data.put("area", 1221037.0);
+        return data;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name + " on " + target.getClass());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * Answers every call with 503 so services fall back to local data without exception overhead.
+     */
+    private static class UnavailableRestTemplate extends RestTemplate {
+        @Override
+        public <T> ResponseEntity<T> getForEntity(String url, Class<T> responseType, Object... uriVariables) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        @Override
+        public <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                              ParameterizedTypeReference<T> responseType, Object... uriVariables) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.masingita.chatbot.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point for benchmarks.jar.
+ * Always attaches the GC profiler so throughput and allocation rate ({@code gc.alloc.rate.norm})
+ * are reported together; any standard JMH option can be passed, e.g. a benchmark regex.
+ */
+public class BenchmarkRunner {
+
+    private static final Path RESULT_FILE = Path.of("target", "jmh-result.json");
+
+    public static void main(String[] args) throws Exception {
+        // JMH cannot create the result file when run from a directory without target/
+        Files.createDirectories(RESULT_FILE.getParent());
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT_FILE.toString())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.masingita.chatbot.benchmark;
+
+import com.masingita.chatbot.cache.CacheCodec;
+import com.masingita.chatbot.cache.CompactCacheSerializer;
+import com.masingita.chatbot.model.CountryInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serialization for cached country details and prefix matches.
+ * Each trial also prints the encoded bytes per entry for its codec and compression threshold,
+ * which is what a cached entry costs in Redis memory and network transfer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializationBenchmark {
+
+    @Param({"SMILE", "CBOR", "JSON"})
+    private CacheCodec codec;
+
+    @Param({"-1", "512"})
+    private int compressionThreshold;
+
+    private CompactCacheSerializer serializer;
+    private CountryInfo countryInfo;
+    private String[] matches;
+    private byte[] encodedCountryInfo;
+    private byte[] encodedMatches;
+
+    @Setup
+    public void setUp() {
+        serializer = new CompactCacheSerializer(codec, compressionThreshold);
+        countryInfo = BenchmarkFixtures.country("south africa");
+        matches = new String[] {"south africa", "south korea", "south sudan", "spain", "sweden", "senegal"};
+        encodedCountryInfo = serializer.serialize(countryInfo);
+        encodedMatches = serializer.serialize(matches);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportEncodedSize() {
+        System.out.printf("%n%-6s threshold=%4d  bytes/entry: countryInfo=%5d  matches=%4d%n",
+                codec, compressionThreshold, encodedCountryInfo.length, encodedMatches.length);
+    }
+
+    @Benchmark
+    public byte[] serializeCountryInfo() {
+        return serializer.serialize(countryInfo);
+    }
+
+    @Benchmark
+    public Object deserializeCountryInfo() {
+        return serializer.deserialize(encodedCountryInfo);
+    }
+
+    @Benchmark
+    public byte[] serializeMatches() {
+        return serializer.serialize(matches);
+    }
+
+    @Benchmark
+    public Object deserializeMatches() {
+        return serializer.deserialize(encodedMatches);
+    }
+}
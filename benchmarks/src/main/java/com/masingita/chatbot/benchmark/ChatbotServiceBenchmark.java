@@ -0,0 +1,33 @@
+package com.masingita.chatbot.benchmark;
+
+import com.masingita.chatbot.service.ChatbotService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of country information in simple and detailed mode.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatbotServiceBenchmark {
+
+    @Param({"false", "true"})
+    private boolean detailedMode;
+
+    private ChatbotService chatbotService;
+
+    @Setup
+    public void setUp() {
+        chatbotService = BenchmarkFixtures.chatbotService(BenchmarkFixtures.countryDataService());
+    }
+
+    @Benchmark
+    public String formatCountryInfo() {
+        return chatbotService.formatCountryInfo("south africa", detailedMode);
+    }
+}
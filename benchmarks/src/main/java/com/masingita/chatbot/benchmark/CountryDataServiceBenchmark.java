@@ -0,0 +1,33 @@
+package com.masingita.chatbot.benchmark;
+
+import com.masingita.chatbot.service.CountryDataService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix matching against local data, from broad to unmatched prefixes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountryDataServiceBenchmark {
+
+    @Param({"s", "south", "zimb", "xyz"})
+    private String prefix;
+
+    private CountryDataService countryDataService;
+
+    @Setup
+    public void setUp() {
+        countryDataService = BenchmarkFixtures.countryDataService();
+    }
+
+    @Benchmark
+    public String[] listCountriesWhichStartsWith() {
+        return countryDataService.listCountriesWhichStartsWith(prefix);
+    }
+}
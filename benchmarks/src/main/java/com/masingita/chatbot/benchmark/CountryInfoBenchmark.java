@@ -0,0 +1,34 @@
+package com.masingita.chatbot.benchmark;
+
+import com.masingita.chatbot.model.CountryInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of an external API entry onto {@link CountryInfo}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountryInfoBenchmark {
+
+    private Map<String, Object> externalData;
+
+    @Setup
+    public void setUp() {
+        externalData = BenchmarkFixtures.externalData("south africa");
+    }
+
+    @Benchmark
+    public CountryInfo enrichFromExternalData() {
+        CountryInfo info = new CountryInfo();
+        info.setName("south africa");
+        info.enrichFromExternalData(externalData);
+        return info;
+    }
+}
@@ -0,0 +1,57 @@
+package com.masingita.chatbot.benchmark;
+
+import com.masingita.chatbot.model.ConversationContext;
+import com.masingita.chatbot.service.RuleBasedEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One chat turn through {@link RuleBasedEngine#processUserInput} for each conversation step.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleBasedEngineBenchmark {
+
+    @Param({"WELCOME", "SELECT_COUNTRY", "OPTION_A", "OPTION_D", "OPTION_E", "INVALID_OPTION", "HELP", "COMPARE"})
+    private String scenario;
+
+    private RuleBasedEngine engine;
+    private String message;
+    private String step;
+    private int interactions;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkFixtures.ruleBasedEngine(
+                BenchmarkFixtures.chatbotService(BenchmarkFixtures.countryDataService()));
+
+        step = "CHOOSE_OPTION";
+        interactions = 5;
+        switch (scenario) {
+            case "WELCOME" -> { message = "hello"; step = null; interactions = 0; }
+            case "SELECT_COUNTRY" -> { message = "zimb"; step = "SELECT_COUNTRY"; }
+            case "OPTION_A" -> message = "A";
+            case "OPTION_D" -> message = "D";
+            case "OPTION_E" -> message = "E";
+            case "INVALID_OPTION" -> message = "Z";
+            case "HELP" -> message = "help";
+            case "COMPARE" -> message = "compare kenya, ghana and nigeria";
+            default -> throw new IllegalArgumentException(scenario);
+        }
+    }
+
+    @Benchmark
+    public String processUserInput() {
+        // Fresh context per turn; building it is part of every real request too
+        ConversationContext context = new ConversationContext();
+        context.setCurrentStep(step);
+        context.setSelectedCountry("south africa");
+        context.setInteractionCount(interactions);
+        return engine.processUserInput(message, context);
+    }
+}
@@ -0,0 +1,22 @@
+package com.masingita.chatbot;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+
+/**
+ * Entry point for the Enhanced Country Chatbot.
+ */
+@SpringBootApplication
+public class ChatbotApplication {
+
+    // Enough for every startup step of this application, including one per bean
+    private static final int STARTUP_STEP_CAPACITY = 8192;
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ChatbotApplication.class);
+        // Records per-bean startup timings for the startup report and /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
+    }
+}
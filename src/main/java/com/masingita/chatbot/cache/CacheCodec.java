@@ -0,0 +1,27 @@
+package com.masingita.chatbot.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binary body formats available for cached values.
+ * Selected through {@code chatbot.cache.codec}; JSON keeps the legacy serializer.
+ */
+public enum CacheCodec {
+    SMILE,
+    CBOR,
+    JSON;
+
+    /**
+     * Create the Jackson factory backing this codec
+     * @return Factory for the binary format, or null for legacy JSON
+     */
+    JsonFactory createFactory() {
+        return switch (this) {
+            case SMILE -> new SmileFactory();
+            case CBOR -> new CBORFactory();
+            case JSON -> null;
+        };
+    }
+}
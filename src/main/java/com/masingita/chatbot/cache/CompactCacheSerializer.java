@@ -0,0 +1,202 @@
+package com.masingita.chatbot.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.masingita.chatbot.model.CountryInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact, schema-versioned Redis serializer for cached values.
+ * Known value types are written with a one-byte type tag instead of a class name,
+ * large payloads are deflated, and legacy JSON entries remain readable.
+ *
+ * <p>Layout: {@code MAGIC | FORMAT_VERSION | flags | typeTag | [className] | body}</p>
+ */
+@Slf4j
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 4;
+
+    static final byte FLAG_DEFLATED = 0x01;
+
+    static final byte TYPE_CLASS_NAME = 0;
+    static final byte TYPE_COUNTRY_INFO = 1;
+    static final byte TYPE_STRING_ARRAY = 2;
+    static final byte TYPE_STRING = 3;
+
+    private final CacheCodec codec;
+    private final ObjectMapper mapper;
+    private final int compressionThreshold;
+    private final GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer();
+    // The legacy serializer writes String[] without type information and cannot read it back as Object
+    private final ObjectReader legacyStringArrayReader = new ObjectMapper().readerFor(String[].class);
+
+    /**
+     * @param codec Binary body format
+     * @param compressionThreshold Body size in bytes above which values are deflated, or negative to disable
+     */
+    public CompactCacheSerializer(CacheCodec codec, int compressionThreshold) {
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
+        // Modules on the classpath (java.time in particular) so any cached type can be written
+        this.mapper = codec == CacheCodec.JSON ? null : new ObjectMapper(codec.createFactory())
+                .findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (codec == CacheCodec.JSON) {
+            return legacySerializer.serialize(value);
+        }
+
+        try {
+            byte typeTag = typeTagOf(value);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            if (typeTag == TYPE_CLASS_NAME) {
+                byte[] className = value.getClass().getName().getBytes(StandardCharsets.UTF_8);
+                out.write(className.length >>> 8);
+                out.write(className.length);
+                out.write(className);
+            }
+            mapper.writeValue(out, value);
+            byte[] body = out.toByteArray();
+
+            byte flags = 0;
+            if (compressionThreshold >= 0 && body.length > compressionThreshold) {
+                byte[] deflated = deflate(body);
+                // Small or already dense payloads can grow when deflated
+                if (deflated.length < body.length) {
+                    body = deflated;
+                    flags |= FLAG_DEFLATED;
+                }
+            }
+
+            byte[] result = new byte[HEADER_LENGTH + body.length];
+            result[0] = MAGIC;
+            result[1] = FORMAT_VERSION;
+            result[2] = flags;
+            result[3] = typeTag;
+            System.arraycopy(body, 0, result, HEADER_LENGTH, body.length);
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        // Entries written before the compact format was introduced are plain JSON
+        if (bytes[0] != MAGIC) {
+            return deserializeLegacy(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION) {
+            log.warn("Unsupported cache value format version {}, treating as miss", bytes.length > 1 ? bytes[1] : -1);
+            return null;
+        }
+        if (mapper == null) {
+            throw new SerializationException("Compact cache value found but codec is JSON");
+        }
+
+        try {
+            byte[] body = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+            if ((bytes[2] & FLAG_DEFLATED) != 0) {
+                body = inflate(body);
+            }
+
+            return switch (bytes[3]) {
+                case TYPE_COUNTRY_INFO -> mapper.readValue(body, CountryInfo.class);
+                case TYPE_STRING_ARRAY -> mapper.readValue(body, String[].class);
+                case TYPE_STRING -> mapper.readValue(body, String.class);
+                case TYPE_CLASS_NAME -> readWithClassName(body);
+                default -> throw new SerializationException("Unknown cache type tag " + bytes[3]);
+            };
+        } catch (IOException | DataFormatException | ClassNotFoundException e) {
+            throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    private Object deserializeLegacy(byte[] bytes) {
+        try {
+            return legacySerializer.deserialize(bytes);
+        } catch (SerializationException e) {
+            if (bytes[0] != '[') {
+                throw e;
+            }
+            try {
+                return legacyStringArrayReader.readValue(bytes);
+            } catch (IOException notStringArray) {
+                throw e;
+            }
+        }
+    }
+
+    private Object readWithClassName(byte[] body) throws IOException, ClassNotFoundException {
+        int length = ((body[0] & 0xFF) << 8) | (body[1] & 0xFF);
+        String className = new String(body, 2, length, StandardCharsets.UTF_8);
+        Class<?> type = Class.forName(className, false, getClass().getClassLoader());
+        return mapper.readValue(body, 2 + length, body.length - 2 - length, type);
+    }
+
+    private static byte typeTagOf(Object value) {
+        if (value instanceof CountryInfo) return TYPE_COUNTRY_INFO;
+        if (value instanceof String[]) return TYPE_STRING_ARRAY;
+        if (value instanceof String) return TYPE_STRING;
+        return TYPE_CLASS_NAME;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated deflated cache value");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.masingita.chatbot.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Local application event raised when the country dataset version moves forward.
+ * Listeners rebuild only the changed keys unless {@link #isFullRebuild()} is set.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class DatasetChangedEvent {
+
+    private final long version;
+
+    /** Lower-case country keys whose data changed. */
+    private final Set<String> changedKeys;
+
+    /** Whether countries were added or removed, affecting name lists and prefix matches. */
+    private final boolean membershipChanged;
+
+    /** Whether this node missed updates and must rebuild everything. */
+    private final boolean fullRebuild;
+}
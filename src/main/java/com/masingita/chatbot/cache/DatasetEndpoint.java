@@ -0,0 +1,41 @@
+package com.masingita.chatbot.cache;
+
+import com.masingita.chatbot.service.CountryDataService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Admin actuator endpoint exposing the dataset version and triggering a cluster-wide refresh
+ * of both the local dataset and the API data fingerprints.
+ */
+@Component
+@Endpoint(id = "dataset")
+@Lazy
+public class DatasetEndpoint {
+
+    @Autowired
+    private DatasetVersionService datasetVersionService;
+
+    @Autowired
+    private CountryDataService countryDataService;
+
+    @ReadOperation
+    public Map<String, Object> version() {
+        return Map.of("version", datasetVersionService.getCurrentVersion());
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() throws IOException {
+        long previous = datasetVersionService.getCurrentVersion();
+        countryDataService.refreshLocalData();
+        long version = countryDataService.refreshApiData();
+        return Map.of("previousVersion", previous, "version", version);
+    }
+}
@@ -0,0 +1,147 @@
+package com.masingita.chatbot.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide country dataset versioning.
+ * A refresh increments the version in Redis and broadcasts the changed keys; every node turns the
+ * broadcast into a local {@link DatasetChangedEvent} and evicts the shared cache entries it affects
+ * once it has applied the change.
+ * Nodes that missed a message notice the version gap, or the mismatch after re-subscribing,
+ * and rebuild fully.
+ */
+@Service
+@Slf4j
+public class DatasetVersionService implements MessageListener, SubscriptionListener {
+
+    public static final String CHANNEL = "chat:dataset:invalidations";
+    static final String VERSION_KEY = "chat:dataset:version";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong localVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        // Local data was just loaded from the classpath, so this node is current as of now
+        localVersion.set(fetchClusterVersion());
+    }
+
+    /**
+     * Dataset version applied on this node
+     * @return Local dataset version
+     */
+    public long getCurrentVersion() {
+        return localVersion.get();
+    }
+
+    /**
+     * Publish a dataset change to all nodes, including this one
+     * @param changedKeys Lower-case country keys whose data changed
+     * @param membershipChanged Whether countries were added or removed
+     * @return New dataset version
+     */
+    public long publishChange(Set<String> changedKeys, boolean membershipChanged) {
+        Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+        if (version == null) {
+            throw new IllegalStateException("Could not increment dataset version");
+        }
+
+        try {
+            String payload = objectMapper.writeValueAsString(
+                    new InvalidationMessage(version, changedKeys, membershipChanged));
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode dataset invalidation", e);
+        }
+        log.info("Published dataset version {} with {} changed countries", version, changedKeys.size());
+        return version;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        InvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable dataset invalidation: {}", e.getMessage());
+            return;
+        }
+
+        long previous = localVersion.getAndAccumulate(invalidation.getVersion(), Math::max);
+        if (invalidation.getVersion() <= previous) {
+            return;
+        }
+
+        boolean missedUpdates = invalidation.getVersion() > previous + 1;
+        if (missedUpdates) {
+            log.warn("Dataset version jumped from {} to {}, rebuilding local data", previous, invalidation.getVersion());
+        }
+        eventPublisher.publishEvent(new DatasetChangedEvent(invalidation.getVersion(),
+                invalidation.getKeys(), invalidation.isMembershipChanged(), missedUpdates));
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        // Fires on initial subscription and after every reconnect
+        reconcile();
+    }
+
+    /**
+     * Compare the local version with the cluster version and rebuild if this node fell behind
+     */
+    public void reconcile() {
+        long clusterVersion = fetchClusterVersion();
+        long previous = localVersion.getAndAccumulate(clusterVersion, Math::max);
+        if (clusterVersion > previous) {
+            log.info("Dataset version {} is behind cluster version {}, rebuilding local data", previous, clusterVersion);
+            eventPublisher.publishEvent(new DatasetChangedEvent(clusterVersion, Collections.emptySet(), true, true));
+        }
+    }
+
+    private long fetchClusterVersion() {
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.warn("Could not read cluster dataset version: {}", e.getMessage());
+            return localVersion.get();
+        }
+    }
+
+    /**
+     * Message broadcast on {@link #CHANNEL}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class InvalidationMessage {
+        private long version;
+        private Set<String> keys;
+        private boolean membershipChanged;
+    }
+}
@@ -0,0 +1,94 @@
+package com.masingita.chatbot.cache;
+
+import com.masingita.chatbot.diagnostics.TurnPhase;
+import com.masingita.chatbot.diagnostics.TurnRecorder;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RedisCacheWriter decorator attributing synchronous cache round trips to the
+ * {@link TurnPhase#CACHE_ACCESS} phase of the current chat turn.
+ * Caches stay plain RedisCache instances, so cache statistics and metrics are unaffected.
+ */
+public class PhaseTimingRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final TurnRecorder turnRecorder;
+
+    public PhaseTimingRedisCacheWriter(RedisCacheWriter delegate, TurnRecorder turnRecorder) {
+        this.delegate = delegate;
+        this.turnRecorder = turnRecorder;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.CACHE_ACCESS)) {
+            return delegate.get(name, key);
+        }
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.CACHE_ACCESS)) {
+            return delegate.get(name, key, ttl);
+        }
+    }
+
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return delegate.supportsAsyncRetrieve();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, key, ttl);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.CACHE_ACCESS)) {
+            delegate.put(name, key, value, ttl);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, key, value, ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.CACHE_ACCESS)) {
+            return delegate.putIfAbsent(name, key, value, ttl);
+        }
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new PhaseTimingRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), turnRecorder);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+}
@@ -0,0 +1,146 @@
+package com.masingita.chatbot.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Node-local cache of pre-serialized, pre-compressed JSON responses for country reads.
+ * Each payload is tied to the dataset version it was built under and carries strong ETags for its
+ * identity and gzip representations, so repeat requests do no Jackson or compression work.
+ */
+@Component
+public class PreparedResponseCache {
+
+    public static final String COUNTRIES_KEY = "countries";
+    private static final String COUNTRY_KEY_PREFIX = "country:";
+
+    private final Map<String, Payload> payloads = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatasetVersionService datasetVersionService;
+
+    // API-sourced data can change without a dataset version bump, so payloads also age out
+    @Value("${chatbot.cache.ttl-seconds:3600}")
+    private long payloadTtlSeconds;
+
+    /**
+     * Cache key of a country's details
+     * @param normalizedName Lower-case country name
+     * @return Cache key
+     */
+    public static String countryKey(String normalizedName) {
+        return COUNTRY_KEY_PREFIX + normalizedName;
+    }
+
+    /**
+     * Get the prepared payload for a key without loading it
+     * @param key Cache key
+     * @return Payload built under the current dataset version and not expired, or null
+     */
+    public Payload getIfFresh(String key) {
+        Payload payload = payloads.get(key);
+        return payload != null && isFresh(payload, datasetVersionService.getCurrentVersion(), System.nanoTime())
+                ? payload : null;
+    }
+
+    /**
+     * Get the prepared payload for a key, building it from the loader if missing, stale or expired
+     * @param key Cache key
+     * @param loader Loads the value to serialize; null means not found
+     * @return Prepared payload, or null if the loader found nothing
+     */
+    public Payload get(String key, Supplier<Object> loader) {
+        long version = datasetVersionService.getCurrentVersion();
+        long now = System.nanoTime();
+        Payload payload = payloads.get(key);
+        if (payload != null && isFresh(payload, version, now)) {
+            return payload;
+        }
+
+        Object value = loader.get();
+        if (value == null) {
+            payloads.remove(key);
+            return null;
+        }
+        payload = build(version, now, value);
+        payloads.put(key, payload);
+        return payload;
+    }
+
+    /**
+     * Drop payloads affected by a dataset change; they would be rebuilt anyway once the version moved
+     * @param event Dataset change
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (event.isFullRebuild()) {
+            payloads.clear();
+            return;
+        }
+        event.getChangedKeys().forEach(key -> payloads.remove(countryKey(key)));
+        if (event.isMembershipChanged()) {
+            payloads.remove(COUNTRIES_KEY);
+        }
+    }
+
+    private boolean isFresh(Payload payload, long version, long now) {
+        return payload.version == version && now - payload.createdNanos < TimeUnit.SECONDS.toNanos(payloadTtlSeconds);
+    }
+
+    private Payload build(long version, long now, Object value) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response payload", e);
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Version plus content hash: nodes that built different content never share a tag
+        String tag = version + "-" + DigestUtils.md5DigestAsHex(json);
+        return new Payload(version, now, json, compressed.toByteArray(), "\"" + tag + "\"", "\"" + tag + "-gz\"");
+    }
+
+    /**
+     * A serialized response and its gzip encoding.
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Payload {
+        private final long version;
+        private final long createdNanos;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+    }
+}
@@ -1,5 +1,11 @@
 package com.masingita.chatbot.config;
 
+import com.masingita.chatbot.cache.CacheCodec;
+import com.masingita.chatbot.cache.CompactCacheSerializer;
+import com.masingita.chatbot.cache.DatasetVersionService;
+import com.masingita.chatbot.cache.PhaseTimingRedisCacheWriter;
+import com.masingita.chatbot.diagnostics.TurnRecorder;
+import com.masingita.chatbot.service.ConversationFlushListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -7,8 +13,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
@@ -16,6 +25,8 @@ import java.time.Duration;
 /**
  * Redis caching configuration for improved performance.
  * Implements a time-to-live strategy for country data to ensure freshness.
+ * Values use a compact binary codec that still reads entries written as JSON.
+ * Dataset invalidations and session expiry notifications are received over Redis pub/sub.
  */
 @Configuration
 @EnableCaching
@@ -24,24 +35,53 @@ public class CacheConfig {
     @Value("${chatbot.cache.ttl-seconds:3600}")
     private long cacheTtlSeconds;
 
+    @Value("${chatbot.cache.codec:SMILE}")
+    private CacheCodec cacheCodec;
+
+    @Value("${chatbot.cache.compression-threshold-bytes:1024}")
+    private int compressionThresholdBytes;
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, TurnRecorder turnRecorder) {
         RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(cacheTtlSeconds))
                 .disableCachingNullValues()
                 .serializeValuesWith(
                         RedisSerializationContext.SerializationPair
-                                .fromSerializer(new GenericJackson2JsonRedisSerializer())
+                                .fromSerializer(cacheValueSerializer())
                 );
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheWriter cacheWriter = new PhaseTimingRedisCacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), turnRecorder);
+
+        return RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(cacheConfig)
+                // Hit/miss counters for the cache.gets metrics bound by actuator
+                .enableStatistics()
                 .withCacheConfiguration("countries", 
                         cacheConfig.entryTtl(Duration.ofDays(1)))
                 .withCacheConfiguration("countryDetails", 
                         cacheConfig.entryTtl(Duration.ofHours(12)))
+                .withCacheConfiguration("countryMatches", cacheConfig)
                 .withCacheConfiguration("conversationHistory", 
                         cacheConfig.entryTtl(Duration.ofDays(30)))
                 .build();
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        DatasetVersionService datasetVersionService,
+                                                                        ConversationFlushListener conversationFlushListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(datasetVersionService, new ChannelTopic(DatasetVersionService.CHANNEL));
+        container.addMessageListener(conversationFlushListener,
+                new PatternTopic(ConversationFlushListener.EXPIRED_KEYS_PATTERN));
+        return container;
+    }
+
+    @Bean
+    public CompactCacheSerializer cacheValueSerializer() {
+        return new CompactCacheSerializer(cacheCodec, compressionThresholdBytes);
+    }
 }
\ No newline at end of file
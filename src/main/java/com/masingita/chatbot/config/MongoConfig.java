@@ -3,6 +3,7 @@ package com.masingita.chatbot.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
@@ -19,7 +20,9 @@ import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 @EnableMongoAuditing
 public class MongoConfig {
 
+    // Not used on the request path, so created on first use instead of at startup
     @Bean
+    @Lazy
     public MongoTransactionManager transactionManager(MongoDatabaseFactory dbFactory) {
         return new MongoTransactionManager(dbFactory);
     }
@@ -0,0 +1,12 @@
+package com.masingita.chatbot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs such as conversation retention.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
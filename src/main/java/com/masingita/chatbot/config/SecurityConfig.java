@@ -1,17 +1,29 @@
 package com.masingita.chatbot.config;
 
+import com.masingita.chatbot.security.ApiTokenService;
+import com.masingita.chatbot.security.RateLimitFilter;
+import com.masingita.chatbot.security.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -21,7 +33,9 @@ import java.util.List;
 
 /**
  * Security configuration for the chatbot application.
- * Implements OAuth2 authentication, CSRF protection, and secure headers.
+ * Implements OAuth2 authentication, CSRF protection, secure headers and rate limiting.
+ * API calls carrying a bearer token use a separate stateless chain; everything else,
+ * including the browser login flow, keeps its HttpSession.
  */
 @Configuration
 @EnableWebSecurity
@@ -31,8 +45,64 @@ public class SecurityConfig {
     @Value("${chatbot.security.allowed-origins}")
     private String[] allowedOrigins;
 
+    @Value("${chatbot.security.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${chatbot.security.rate-limit.paths:/api/chat/**}")
+    private String[] rateLimitPaths;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ApiTokenService apiTokenService;
+
+    /**
+     * Stateless chain for {@code /api/**} requests with a bearer token.
+     * No HttpSession or session registry is touched; tokens are verified against in-memory keys.
+     * CSRF protection is not needed because browsers never attach the header on their own.
+     */
+    @Bean
+    @Order(1)
+    @ConditionalOnProperty(value = "chatbot.security.api-token.enabled", havingValue = "true", matchIfMissing = true)
+    public SecurityFilterChain apiTokenFilterChain(HttpSecurity http) throws Exception {
+        if (rateLimitEnabled) {
+            http.addFilterBefore(new RateLimitFilter(rateLimiter, List.of(rateLimitPaths)), AuthorizationFilter.class);
+        }
+
+        RequestMatcher bearerToken = request -> {
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            return authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7);
+        };
+
+        return http
+                .securityMatcher(new AndRequestMatcher(new AntPathRequestMatcher("/api/**"), bearerToken))
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/api/public/**").permitAll()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .anyRequest().authenticated()
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt
+                                .decoder(apiTokenService.getDecoder())
+                                .jwtAuthenticationConverter(apiTokenService.authenticationConverter())
+                        )
+                )
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        if (rateLimitEnabled) {
+            // After authentication so users are keyed by identity, before any controller work
+            http.addFilterBefore(new RateLimitFilter(rateLimiter, List.of(rateLimitPaths)), AuthorizationFilter.class);
+        }
+
         return http
                 // CSRF protection
                 .csrf(csrf -> csrf
@@ -56,6 +126,7 @@ public class SecurityConfig {
                         .requestMatchers("/", "/index.html", "/static/**", "/api/public/**").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                         .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
@@ -80,6 +151,15 @@ public class SecurityConfig {
                 .build();
     }
 
+    /**
+     * Publishes HttpSession lifecycle events, used by the session registry and to flush
+     * conversations whose session was invalidated or timed out.
+     */
+    @Bean
+    public HttpSessionEventPublisher httpSessionEventPublisher() {
+        return new HttpSessionEventPublisher();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -22,6 +22,10 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${chatbot.api.timeout-seconds:10}")
     private int apiTimeoutSeconds;
     
+    // The client's default of 5 connections per route would serialize batch lookups
+    @Value("${chatbot.api.max-connections-per-route:16}")
+    private int maxConnectionsPerRoute;
+    
     @Value("${chatbot.ui.default-language:en}")
     private String defaultLanguage;
 
@@ -30,6 +34,10 @@ public class WebConfig implements WebMvcConfigurer {
         RestTemplate restTemplate = new RestTemplate();
         restTemplate.setRequestFactory(new org.springframework.http.client.HttpComponentsClientHttpRequestFactory(
                 org.apache.hc.client5.http.impl.classic.HttpClients.custom()
+                        .setConnectionManager(org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder.create()
+                                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                                .setMaxConnTotal(maxConnectionsPerRoute * 2)
+                                .build())
                         .setDefaultRequestConfig(org.apache.hc.client5.http.config.RequestConfig.custom()
                                 .setConnectTimeout(org.apache.hc.core5.util.Timeout.ofSeconds(apiTimeoutSeconds))
                                 .setResponseTimeout(org.apache.hc.core5.util.Timeout.ofSeconds(apiTimeoutSeconds))
@@ -1,3 +1,168 @@
+package com.masingita.chatbot.controller;
+
+import com.masingita.chatbot.cache.PreparedResponseCache;
+import com.masingita.chatbot.model.CountryBatchRequest;
+import com.masingita.chatbot.model.CountryBatchResponse;
+import com.masingita.chatbot.security.RateLimiter;
+import com.masingita.chatbot.service.CountryDataService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * REST endpoints for country data.
+ * Reads are served from prepared payloads with strong ETags tied to the dataset version,
+ * so unchanged data costs a 304 or a byte copy. Only reads that have to load data, such as
+ * unknown or evicted countries, are charged to the client's read budget.
+ */
+@RestController
+@RequestMapping("/api/countries")
 public class ApiController {
-    
+
+    @Autowired
+    private CountryDataService countryDataService;
+
+    @Autowired
+    private PreparedResponseCache preparedResponseCache;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Value("${chatbot.http.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${chatbot.http.stale-while-revalidate-seconds:3600}")
+    private long staleWhileRevalidateSeconds;
+
+    private static final byte[] RATE_LIMITED_BODY =
+            "{\"error\":\"Too many requests. Please slow down.\"}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * List all countries
+     * @param request Current request, identifying the client for the read budget
+     * @param ifNoneMatch ETags the client already has
+     * @param acceptEncoding Encodings the client accepts
+     * @return Country names, 304 if unchanged or 429 if the read budget is spent
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> listCountries(
+            HttpServletRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return read(request, PreparedResponseCache.COUNTRIES_KEY, countryDataService::listAllCountries,
+                ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Get details of one country
+     * @param name Country name
+     * @param request Current request, identifying the client for the read budget
+     * @param ifNoneMatch ETags the client already has
+     * @param acceptEncoding Encodings the client accepts
+     * @return Country details, 304 if unchanged, 404 if unknown or 429 if the read budget is spent
+     */
+    @GetMapping("/{name}")
+    public ResponseEntity<byte[]> getCountry(
+            @PathVariable String name,
+            HttpServletRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String normalizedName = name.trim().toLowerCase();
+        return read(request, PreparedResponseCache.countryKey(normalizedName),
+                () -> countryDataService.getCountryInfo(normalizedName), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Look up several countries in one request.
+     * Countries that cannot be resolved are reported under {@code failures}; the rest are still returned.
+     * @param request Country names, at most 50
+     * @return Resolved countries and failures
+     */
+    @PostMapping("/batch")
+    public CountryBatchResponse batch(@Valid @RequestBody CountryBatchRequest request) {
+        return countryDataService.getCountryInfos(request.getCountries());
+    }
+
+    private ResponseEntity<byte[]> read(HttpServletRequest request, String key, Supplier<Object> loader,
+                                        String ifNoneMatch, String acceptEncoding) {
+        PreparedResponseCache.Payload payload = preparedResponseCache.getIfFresh(key);
+        if (payload == null) {
+            // Loading may call the countries API (unknown names are never cached), so it costs a token
+            RateLimiter.ClientKey client = RateLimiter.clientKey(request);
+            long retryAfterSeconds = rateLimiter.tryAcquireRead(client.value(), client.type());
+            if (retryAfterSeconds > 0) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(RATE_LIMITED_BODY);
+            }
+            payload = preparedResponseCache.get(key, loader);
+        }
+        if (payload == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return respond(payload, ifNoneMatch, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> respond(PreparedResponseCache.Payload payload, String ifNoneMatch,
+                                           String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? payload.getGzipEtag() : payload.getEtag();
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidateSeconds))
+                .cachePrivate();
+
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            // Already compressed, so server-side response compression leaves it alone
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
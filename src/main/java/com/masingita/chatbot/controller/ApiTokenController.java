@@ -0,0 +1,68 @@
+package com.masingita.chatbot.controller;
+
+import com.masingita.chatbot.model.ApiTokenResponse;
+import com.masingita.chatbot.security.ApiTokenService;
+import com.masingita.chatbot.service.ChatSessions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Issues API tokens for the stateless {@code /api/**} mode.
+ * A logged-in browser session exchanges its login for a token bound to the browser's chat id,
+ * never its session id, so the conversation continues without exposing the session cookie; a token holder refreshes its token before expiry until the maximum
+ * session lifetime since sign-in has passed, after which the browser session has to issue a new one.
+ */
+@RestController
+@RequestMapping("/api/token")
+public class ApiTokenController {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Autowired
+    private ApiTokenService apiTokenService;
+
+    /**
+     * Issue a token for the current user
+     * @param request Current request
+     * @param authentication Session login or a still valid API token
+     * @return Signed token
+     */
+    @PostMapping
+    public ApiTokenResponse issue(HttpServletRequest request, Authentication authentication) {
+        String chatId;
+        Instant authTime;
+        if (authentication instanceof JwtAuthenticationToken token) {
+            if (!apiTokenService.isRefreshable(token.getToken())) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Session expired, sign in again");
+            }
+            chatId = token.getToken().getClaimAsString(ApiTokenService.SESSION_CLAIM);
+            authTime = apiTokenService.getAuthTime(token.getToken());
+        } else {
+            // Same chat id the browser's turns use, so the token continues that conversation;
+            // the authenticated browser session counts as a fresh sign-in
+            HttpSession session = request.getSession();
+            chatId = ChatSessions.chatId(session);
+            session.setAttribute(ChatSessions.TOKEN_ISSUED_ATTRIBUTE, Boolean.TRUE);
+            authTime = Instant.now();
+        }
+
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .toList();
+        String token = apiTokenService.issue(authentication.getName(), chatId, roles, authTime);
+        return new ApiTokenResponse(token, "Bearer", apiTokenService.getExpiresInSeconds(authTime));
+    }
+}
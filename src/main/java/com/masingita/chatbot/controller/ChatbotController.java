@@ -1,3 +1,147 @@
+package com.masingita.chatbot.controller;
+
+import com.masingita.chatbot.diagnostics.StartupReport;
+import com.masingita.chatbot.diagnostics.TurnPhase;
+import com.masingita.chatbot.diagnostics.TurnRecorder;
+import com.masingita.chatbot.model.ChatRequest;
+import com.masingita.chatbot.model.ChatResponse;
+import com.masingita.chatbot.model.ConversationContext;
+import com.masingita.chatbot.security.ApiTokenService;
+import com.masingita.chatbot.service.AdaptiveConcurrencyLimiter;
+import com.masingita.chatbot.service.ChatSessions;
+import com.masingita.chatbot.service.ChatbotService;
+import com.masingita.chatbot.service.RuleBasedEngine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST endpoint for chat turns.
+ * Each turn loads the session context from the hot store, runs the engine and writes it back.
+ * Turns beyond the adaptive concurrency limit are shed with a static busy response.
+ */
+@RestController
+@RequestMapping("/api/chat")
+@Slf4j
 public class ChatbotController {
-    
+
+    private static final String ANONYMOUS_USER = "anonymous";
+
+    // Set after the first completed turn of a browser session
+    static final String CONVERSATION_STARTED_ATTRIBUTE = "chatbot.conversationStarted";
+
+    private static final ResponseEntity<ChatResponse> BUSY_RESPONSE = ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "2")
+            .cacheControl(CacheControl.maxAge(2, TimeUnit.SECONDS))
+            .body(new ChatResponse("I'm handling a lot of conversations right now. Please try again in a moment.",
+                    null, null));
+
+    @Autowired
+    private RuleBasedEngine ruleBasedEngine;
+
+    @Autowired
+    private ChatbotService chatbotService;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private TurnRecorder turnRecorder;
+
+    @Autowired
+    private StartupReport startupReport;
+
+    /**
+     * Process a single chat turn
+     * @param request Chat message
+     * @param httpRequest HTTP request; its session's chat id identifies the conversation unless a token does
+     * @param principal Authenticated user, if any
+     * @return Chatbot response
+     */
+    @PostMapping
+    public ResponseEntity<ChatResponse> chat(@Valid @RequestBody ChatRequest request,
+                                             HttpServletRequest httpRequest, Principal principal) {
+        String userId = principal != null ? principal.getName() : ANONYMOUS_USER;
+        String message = request.getMessage().trim();
+
+        String sessionId;
+        boolean inProgress;
+        HttpSession session = null;
+        if (principal instanceof JwtAuthenticationToken token) {
+            // Stateless mode: only the conversation's hot state says whether it is under way
+            sessionId = token.getToken().getClaimAsString(ApiTokenService.SESSION_CLAIM);
+            inProgress = chatbotService.isConversationActive(sessionId);
+        } else {
+            session = httpRequest.getSession();
+            sessionId = ChatSessions.chatId(session);
+            inProgress = session.getAttribute(CONVERSATION_STARTED_ATTRIBUTE) != null;
+        }
+
+        // Conversations already under way get priority over brand new sessions
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = concurrencyLimiter.tryAcquire(inProgress);
+        if (permit.isEmpty()) {
+            return BUSY_RESPONSE;
+        }
+
+        turnRecorder.beginTurn();
+        ConversationContext context = null;
+        boolean failed = true;
+        try {
+            try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.CONTEXT_LOAD)) {
+                context = chatbotService.loadContext(sessionId);
+            }
+            String response;
+            try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.INTENT_DISPATCH)) {
+                response = ruleBasedEngine.processUserInput(message, context);
+            }
+            try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.PERSIST)) {
+                chatbotService.recordTurn(sessionId, userId, message, response, context);
+            }
+            failed = false;
+            permit.get().onSuccess();
+            startupReport.recordChatServed();
+            if (session != null && !inProgress) {
+                session.setAttribute(CONVERSATION_STARTED_ATTRIBUTE, Boolean.TRUE);
+            }
+
+            return ResponseEntity.ok(new ChatResponse(response, context.getCurrentStep(), context.getSelectedCountry()));
+        } catch (RuntimeException e) {
+            permit.get().onDropped();
+            throw e;
+        } finally {
+            turnRecorder.endTurn(context != null ? context.getCurrentStep() : null, failed);
+        }
+    }
+
+    /**
+     * End the current conversation, flushing it to persistent storage
+     * @param httpRequest HTTP request; its session's chat id identifies the conversation unless a token does
+     * @param principal Authenticated user, if any
+     * @return Empty response
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> endConversation(HttpServletRequest httpRequest, Principal principal) {
+        String sessionId = principal instanceof JwtAuthenticationToken token
+                ? token.getToken().getClaimAsString(ApiTokenService.SESSION_CLAIM)
+                : ChatSessions.chatId(httpRequest.getSession());
+        chatbotService.endConversation(sessionId, principal != null ? principal.getName() : ANONYMOUS_USER);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,133 @@
+package com.masingita.chatbot.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Admin export of conversation history as NDJSON.
+ * Documents are streamed from a MongoDB cursor in {@code _id} order without being mapped or
+ * collected, so memory use is constant; each line's {@code _id} can be passed back as
+ * {@code after} to resume an interrupted export.
+ */
+@RestController
+@RequestMapping("/api/admin/conversations")
+@Lazy
+@Slf4j
+public class ConversationExportController {
+
+    private static final String COLLECTION = "conversations";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED)
+            .build();
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Stream conversations matching the filters
+     * @param userId Only conversations of this user
+     * @param from Only conversations last updated at or after this time
+     * @param to Only conversations last updated before this time
+     * @param after Keyset cursor: only conversations with a greater {@code _id}
+     * @param limit Maximum number of conversations, 0 for no limit
+     * @param gzip Whether to gzip the response body
+     * @return NDJSON stream, one conversation per line
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "0") int limit,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        if (after != null && !ObjectId.isValid(after)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + after);
+        }
+        Query query = buildQuery(userId, from, to, after, limit);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            long exported = 0;
+            try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, COLLECTION);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8))) {
+                for (Document document : (Iterable<Document>) documents::iterator) {
+                    if (document.get("_id") instanceof ObjectId id) {
+                        document.put("_id", id.toHexString());
+                    }
+                    writer.write(document.toJson(JSON_SETTINGS));
+                    writer.write('\n');
+                    if (++exported % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+            }
+            log.info("Exported {} conversations", exported);
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static Query buildQuery(String userId, LocalDateTime from, LocalDateTime to, String after, int limit) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (userId != null) {
+            criteria.add(Criteria.where("userId").is(userId));
+        }
+        if (from != null || to != null) {
+            Criteria lastUpdated = Criteria.where("lastUpdated");
+            if (from != null) lastUpdated.gte(from);
+            if (to != null) lastUpdated.lt(to);
+            criteria.add(lastUpdated);
+        }
+        if (after != null) {
+            criteria.add(Criteria.where("_id").gt(new ObjectId(after)));
+        }
+
+        Query query = criteria.isEmpty() ? new Query()
+                : Query.query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(CURSOR_BATCH_SIZE);
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return query;
+    }
+}
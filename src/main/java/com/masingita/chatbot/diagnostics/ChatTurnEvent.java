@@ -0,0 +1,27 @@
+package com.masingita.chatbot.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering a whole chat turn; phase events share its turn id.
+ */
+@Name("com.masingita.chatbot.ChatTurn")
+@Label("Chat Turn")
+@Category({"Chatbot", "Turns"})
+@Description("A complete chat turn from context load to persistence")
+@StackTrace(false)
+class ChatTurnEvent extends jdk.jfr.Event {
+
+    @Label("Turn Id")
+    long turnId;
+
+    @Label("Step")
+    String step;
+
+    @Label("Failed")
+    boolean failed;
+}
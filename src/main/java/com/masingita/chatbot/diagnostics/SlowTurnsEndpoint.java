@@ -0,0 +1,37 @@
+package com.masingita.chatbot.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin actuator endpoint returning the phase breakdown of recent slow chat turns.
+ */
+@Component
+@Endpoint(id = "slowturns")
+@Lazy
+public class SlowTurnsEndpoint {
+
+    @Autowired
+    private TurnRecorder turnRecorder;
+
+    @ReadOperation
+    public Map<String, Object> slowTurns() {
+        List<TurnRecorder.SlowTurn> turns = turnRecorder.getSlowTurns();
+        return Map.of(
+                "thresholdMillis", turnRecorder.getSlowTurnThresholdMs(),
+                "count", turns.size(),
+                "turns", turns);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        turnRecorder.clearSlowTurns();
+    }
+}
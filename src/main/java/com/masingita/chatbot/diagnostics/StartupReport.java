@@ -0,0 +1,92 @@
+package com.masingita.chatbot.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Startup-time report.
+ * Once the application is ready, logs the slowest bean instantiations recorded by
+ * {@link BufferingApplicationStartup} (the full timeline is served by {@code /actuator/startup});
+ * also records the time from JVM start to the first served chat turn.
+ */
+@Component
+@Slf4j
+public class StartupReport {
+
+    private static final String BEAN_INSTANTIATION_STEP = "spring.beans.instantiate";
+
+    @Autowired
+    private ApplicationStartup applicationStartup;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chatbot.diagnostics.startup-report-beans:15}")
+    private int reportedBeans;
+
+    private final AtomicLong firstChatMillis = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        TimeGauge.builder("chatbot.startup.first.chat", firstChatMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start to the first served chat turn")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long sinceJvmStart = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            log.info("Startup: ready {} ms after JVM start (context {} ms)", sinceJvmStart,
+                    event.getTimeTaken().toMillis());
+            return;
+        }
+
+        // Durations include the beans each one depends on, so they overlap
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        String slowest = timeline.getEvents().stream()
+                .filter(e -> BEAN_INSTANTIATION_STEP.equals(e.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(reportedBeans)
+                .map(e -> String.format("%n  %6d ms  %s", e.getDuration().toMillis(), beanName(e.getStartupStep())))
+                .collect(Collectors.joining());
+        log.info("Startup: ready {} ms after JVM start (context {} ms); slowest bean instantiations:{}",
+                sinceJvmStart, event.getTimeTaken().toMillis(), slowest);
+    }
+
+    /**
+     * Record the first successfully served chat turn; later calls are no-ops
+     */
+    public void recordChatServed() {
+        if (firstChatMillis.get() == 0
+                && firstChatMillis.compareAndSet(0, ManagementFactory.getRuntimeMXBean().getUptime())) {
+            log.info("Startup: first chat served {} ms after JVM start", firstChatMillis.get());
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
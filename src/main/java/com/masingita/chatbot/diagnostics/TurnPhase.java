@@ -0,0 +1,13 @@
+package com.masingita.chatbot.diagnostics;
+
+/**
+ * Phases a chat turn spends its time in.
+ */
+public enum TurnPhase {
+    CONTEXT_LOAD,
+    INTENT_DISPATCH,
+    COUNTRY_LOOKUP,
+    CACHE_ACCESS,
+    RENDER,
+    PERSIST
+}
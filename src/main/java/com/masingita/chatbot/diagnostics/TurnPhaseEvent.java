@@ -0,0 +1,24 @@
+package com.masingita.chatbot.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one phase of a chat turn.
+ */
+@Name("com.masingita.chatbot.TurnPhase")
+@Label("Chat Turn Phase")
+@Category({"Chatbot", "Turns"})
+@Description("Time spent in one phase of a chat turn")
+@StackTrace(false)
+class TurnPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Turn Id")
+    long turnId;
+}
@@ -0,0 +1,207 @@
+package com.masingita.chatbot.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Always-on recorder of chat turn phases.
+ * Every phase emits a JFR event; the current thread's turn also accumulates a per-phase breakdown,
+ * which is kept in a fixed-size ring buffer when the turn exceeds
+ * {@code chatbot.diagnostics.slow-turn-threshold-ms}.
+ */
+@Component
+public class TurnRecorder {
+
+    private static final TurnPhase[] PHASES = TurnPhase.values();
+
+    private final ThreadLocal<ActiveTurn> currentTurn = new ThreadLocal<>();
+    private final AtomicLong turnIds = new AtomicLong();
+    private final AtomicLong slowTurnSequence = new AtomicLong();
+
+    @Value("${chatbot.diagnostics.slow-turn-threshold-ms:500}")
+    private long slowTurnThresholdMs;
+
+    @Value("${chatbot.diagnostics.slow-turn-buffer-size:100}")
+    private int bufferSize;
+
+    private AtomicReferenceArray<SlowTurn> slowTurns;
+
+    @PostConstruct
+    public void init() {
+        slowTurns = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    /**
+     * Start tracking a turn on the current thread
+     */
+    public void beginTurn() {
+        ActiveTurn turn = new ActiveTurn(turnIds.incrementAndGet());
+        turn.event.begin();
+        currentTurn.set(turn);
+    }
+
+    /**
+     * Finish the current thread's turn, keeping its breakdown if it was slow
+     * @param step Conversation step after the turn
+     * @param failed Whether the turn ended with an error
+     */
+    public void endTurn(String step, boolean failed) {
+        ActiveTurn turn = currentTurn.get();
+        if (turn == null) {
+            return;
+        }
+        currentTurn.remove();
+
+        long totalNanos = System.nanoTime() - turn.startNanos;
+        turn.event.end();
+        if (turn.event.shouldCommit()) {
+            turn.event.turnId = turn.id;
+            turn.event.step = step;
+            turn.event.failed = failed;
+            turn.event.commit();
+        }
+
+        if (totalNanos >= TimeUnit.MILLISECONDS.toNanos(slowTurnThresholdMs)) {
+            int slot = (int) (slowTurnSequence.getAndIncrement() % slowTurns.length());
+            slowTurns.set(slot, turn.toSlowTurn(step, failed, totalNanos));
+        }
+    }
+
+    /**
+     * Open a phase; close it (try-with-resources) when the phase ends.
+     * Phases outside a tracked turn still emit JFR events.
+     * @param phase Turn phase
+     * @return Open phase
+     */
+    public Phase phase(TurnPhase phase) {
+        return new Phase(phase, currentTurn.get());
+    }
+
+    /**
+     * Slow turns currently held in the ring buffer
+     * @return Slow turns, newest first
+     */
+    public List<SlowTurn> getSlowTurns() {
+        List<SlowTurn> result = new ArrayList<>(slowTurns.length());
+        long next = slowTurnSequence.get();
+        for (long i = next - 1; i >= 0 && i >= next - slowTurns.length(); i--) {
+            SlowTurn turn = slowTurns.get((int) (i % slowTurns.length()));
+            if (turn != null) {
+                result.add(turn);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop all captured slow turns
+     */
+    public void clearSlowTurns() {
+        for (int i = 0; i < slowTurns.length(); i++) {
+            slowTurns.set(i, null);
+        }
+    }
+
+    /**
+     * Slow-turn threshold in milliseconds
+     * @return Threshold
+     */
+    public long getSlowTurnThresholdMs() {
+        return slowTurnThresholdMs;
+    }
+
+    /**
+     * An open phase of a turn.
+     */
+    public static class Phase implements AutoCloseable {
+        private final TurnPhase phase;
+        private final ActiveTurn turn;
+        private final TurnPhaseEvent event = new TurnPhaseEvent();
+        private final long startNanos = System.nanoTime();
+
+        private Phase(TurnPhase phase, ActiveTurn turn) {
+            this.phase = phase;
+            this.turn = turn;
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - startNanos;
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.name();
+                event.turnId = turn != null ? turn.id : 0;
+                event.commit();
+            }
+            if (turn != null) {
+                turn.phaseNanos[phase.ordinal()] += elapsed;
+                turn.phaseCounts[phase.ordinal()]++;
+            }
+        }
+    }
+
+    /**
+     * Mutable state of a turn in progress; confined to its thread.
+     */
+    private static class ActiveTurn {
+        private final long id;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final long[] phaseNanos = new long[PHASES.length];
+        private final int[] phaseCounts = new int[PHASES.length];
+        private final ChatTurnEvent event = new ChatTurnEvent();
+
+        private ActiveTurn(long id) {
+            this.id = id;
+        }
+
+        private SlowTurn toSlowTurn(String step, boolean failed, long totalNanos) {
+            Map<String, PhaseBreakdown> phases = new LinkedHashMap<>();
+            for (TurnPhase phase : PHASES) {
+                if (phaseCounts[phase.ordinal()] > 0) {
+                    phases.put(phase.name(), new PhaseBreakdown(
+                            phaseNanos[phase.ordinal()] / 1_000_000.0, phaseCounts[phase.ordinal()]));
+                }
+            }
+            return new SlowTurn(id, startedAt, step, failed, totalNanos / 1_000_000.0, phases);
+        }
+    }
+
+    /**
+     * Captured breakdown of a slow turn. Nested phases (e.g. a country lookup during
+     * intent dispatch) are counted in both, so phase times may add up to more than the total.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SlowTurn {
+        private final long turnId;
+        private final Instant startedAt;
+        private final String step;
+        private final boolean failed;
+        private final double totalMillis;
+        private final Map<String, PhaseBreakdown> phases;
+    }
+
+    /**
+     * Time and number of occurrences of one phase within a turn.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PhaseBreakdown {
+        private final double millis;
+        private final int count;
+    }
+}
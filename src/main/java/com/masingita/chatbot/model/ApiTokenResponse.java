@@ -0,0 +1,17 @@
+package com.masingita.chatbot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Short-lived API token issued to a client.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiTokenResponse {
+    private String token;
+    private String tokenType;
+    private long expiresIn;
+}
@@ -0,0 +1,16 @@
+package com.masingita.chatbot.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Incoming chat message from the client.
+ */
+@Data
+public class ChatRequest {
+
+    @NotBlank
+    @Size(max = 500)
+    private String message;
+}
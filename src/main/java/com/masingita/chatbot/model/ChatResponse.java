@@ -0,0 +1,17 @@
+package com.masingita.chatbot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chatbot reply together with the conversation state it leaves behind.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatResponse {
+    private String response;
+    private String currentStep;
+    private String selectedCountry;
+}
@@ -1,3 +1,55 @@
+package com.masingita.chatbot.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Transient;
+
+/**
+ * Per-session conversation state driving the rule-based engine.
+ * Kept in Redis as the hot tier and embedded in ConversationHistory on checkpoints.
+ */
+@Data
+@NoArgsConstructor
 public class ConversationContext {
-    
+
+    private String currentStep;
+    private String selectedCountry;
+    private boolean detailedMode;
+    private int interactionCount;
+    private String lastQuery;
+
+    // Interaction count at the last Mongo checkpoint; only tracked in the hot tier
+    @Transient
+    private int checkpointedInteractionCount;
+
+    /**
+     * Record a new user interaction
+     */
+    public void incrementInteraction() {
+        this.interactionCount++;
+    }
+
+    /**
+     * Whether the current interaction is the first of the session
+     * @return True on the first interaction
+     */
+    public boolean isFirstInteraction() {
+        return interactionCount <= 1;
+    }
+
+    /**
+     * Select the country the following options refer to
+     * @param country Country name
+     */
+    public void updateSelectedCountry(String country) {
+        this.selectedCountry = country;
+    }
+
+    /**
+     * Number of interactions not yet persisted to MongoDB
+     * @return Interactions since the last checkpoint
+     */
+    public int getInteractionsSinceCheckpoint() {
+        return interactionCount - checkpointedInteractionCount;
+    }
 }
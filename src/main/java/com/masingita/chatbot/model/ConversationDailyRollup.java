@@ -0,0 +1,30 @@
+package com.masingita.chatbot.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Daily analytics rollup of conversations, kept after the conversations themselves are purged.
+ */
+@Data
+@Document(collection = "conversation_rollups")
+public class ConversationDailyRollup {
+
+    /** Day of last activity, formatted yyyy-MM-dd. */
+    @Id
+    private String day;
+
+    private long sessions;
+    private long messages;
+    private long detailedSessions;
+
+    /** Sessions per last selected country. */
+    private Map<String, Long> countrySelections = new HashMap<>();
+
+    private LocalDateTime lastUpdated;
+}
@@ -3,6 +3,7 @@ package com.masingita.chatbot.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -21,6 +22,9 @@ public class ConversationHistory {
     private String id;
     
     private String userId;
+    
+    // Looked up on cold loads and checkpoint upserts; unique so concurrent upserts cannot create duplicates
+    @Indexed(unique = true)
     private String sessionId;
     private String userAgent;
     private String ipAddress;
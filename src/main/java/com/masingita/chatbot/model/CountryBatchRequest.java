@@ -0,0 +1,19 @@
+package com.masingita.chatbot.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Countries requested in one batch lookup.
+ */
+@Data
+public class CountryBatchRequest {
+
+    @NotEmpty
+    @Size(max = 50)
+    private List<@NotBlank @Size(max = 100) String> countries;
+}
@@ -0,0 +1,38 @@
+package com.masingita.chatbot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a batch country lookup.
+ * Countries that could not be resolved are listed under failures instead of failing the whole batch.
+ */
+@Data
+public class CountryBatchResponse {
+
+    public enum FailureReason { NOT_FOUND, UPSTREAM_ERROR, TIMEOUT }
+
+    // Keyed by the normalized (lower-case) name, in request order
+    private Map<String, CountryInfo> countries = new LinkedHashMap<>();
+    private List<Failure> failures = new ArrayList<>();
+    private int cacheHits;
+    private int fetched;
+    private int fallbacks;
+
+    /**
+     * A country the batch could not resolve.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        private String country;
+        private FailureReason reason;
+    }
+}
@@ -0,0 +1,207 @@
+package com.masingita.chatbot.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Issues and validates the short-lived signed tokens used by stateless API clients.
+ * Tokens are HS256 JWTs carrying the user id, the chat session id, the user's roles and the time
+ * the user signed in; no token outlives {@code chatbot.security.api-token.max-session-seconds} after that.
+ * All signing keys are held in memory, so validation never leaves the node; listing an old key
+ * next to the active one lets tokens signed before a rotation stay valid until they expire.
+ */
+@Component
+@Slf4j
+public class ApiTokenService {
+
+    public static final String SESSION_CLAIM = "sid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String AUTH_TIME_CLAIM = "auth_time";
+
+    private static final int MIN_KEY_BYTES = 32;
+
+    @Value("${chatbot.security.api-token.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    @Value("${chatbot.security.api-token.max-session-seconds:43200}")
+    private long maxSessionSeconds;
+
+    @Value("${chatbot.security.api-token.issuer:chatbot}")
+    private String issuer;
+
+    // Comma-separated key-id:base64-secret pairs, e.g. "k2:...,k1:..."
+    @Value("${chatbot.security.api-token.keys:}")
+    private String[] keySpecs;
+
+    @Value("${chatbot.security.api-token.active-key-id:}")
+    private String activeKeyId;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+
+    @PostConstruct
+    public void init() {
+        List<JWK> keys = new ArrayList<>();
+        for (String spec : keySpecs) {
+            if (spec.isBlank()) continue;
+            int separator = spec.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("API token keys must be key-id:base64-secret pairs");
+            }
+            String keyId = spec.substring(0, separator).trim();
+            keys.add(key(keyId, Base64.getDecoder().decode(spec.substring(separator + 1).trim())));
+        }
+        if (keys.isEmpty()) {
+            // Tokens from one node are then rejected by the others and do not survive restarts
+            log.warn("No chatbot.security.api-token.keys configured, using a random key for this node only");
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(secret);
+            keys.add(key("local", secret));
+        }
+
+        JWK signingKey = activeKeyId.isBlank() ? keys.get(0) : keys.stream()
+                .filter(k -> activeKeyId.equals(k.getKeyID()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown active API token key " + activeKeyId));
+        activeKeyId = signingKey.getKeyID();
+        encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.HS256,
+                new ImmutableJWKSet<>(new JWKSet(keys))));
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(processor);
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        decoder = jwtDecoder;
+    }
+
+    /**
+     * Issue a token for a user who has just signed in
+     * @param userId User identifier
+     * @param sessionId Chat session identifier
+     * @param roles Granted roles, e.g. {@code ROLE_ADMIN}
+     * @return Signed token
+     */
+    public String issue(String userId, String sessionId, Collection<String> roles) {
+        return issue(userId, sessionId, roles, Instant.now());
+    }
+
+    /**
+     * Issue a token, expiring no later than the maximum session lifetime after sign-in
+     * @param userId User identifier
+     * @param sessionId Chat session identifier
+     * @param roles Granted roles, e.g. {@code ROLE_ADMIN}
+     * @param authTime When the user signed in
+     * @return Signed token
+     */
+    public String issue(String userId, String sessionId, Collection<String> roles, Instant authTime) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(userId)
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(getExpiresInSeconds(authTime)))
+                .claim(SESSION_CLAIM, sessionId)
+                .claim(ROLES_CLAIM, List.copyOf(roles))
+                .claim(AUTH_TIME_CLAIM, authTime.getEpochSecond())
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).keyId(activeKeyId).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    /**
+     * Decoder validating signature, expiry and issuer against the in-memory keys
+     * @return JWT decoder
+     */
+    public JwtDecoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * Converter turning a validated token into an authentication named after the user,
+     * with the roles it carries as authorities
+     * @return Authentication converter
+     */
+    public JwtAuthenticationConverter authenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(ROLES_CLAIM);
+        // Roles are stored with their ROLE_ prefix
+        authorities.setAuthorityPrefix("");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
+    /**
+     * When the holder of a token signed in
+     * @param jwt Validated token
+     * @return Sign-in time; the issue time for tokens without the claim
+     */
+    public Instant getAuthTime(Jwt jwt) {
+        Object authTime = jwt.getClaims().get(AUTH_TIME_CLAIM);
+        if (authTime instanceof Instant instant) {
+            return instant;
+        }
+        if (authTime instanceof Number seconds) {
+            return Instant.ofEpochSecond(seconds.longValue());
+        }
+        return jwt.getIssuedAt() != null ? jwt.getIssuedAt() : Instant.EPOCH;
+    }
+
+    /**
+     * Whether a token may still be exchanged for a new one
+     * @param jwt Validated token
+     * @return False once the maximum session lifetime since sign-in has passed
+     */
+    public boolean isRefreshable(Jwt jwt) {
+        return getAuthTime(jwt).plusSeconds(maxSessionSeconds).isAfter(Instant.now());
+    }
+
+    /**
+     * Lifetime of a token issued now
+     * @param authTime When the user signed in
+     * @return Seconds until the token expires, capped by the maximum session lifetime
+     */
+    public long getExpiresInSeconds(Instant authTime) {
+        long remainingSession = authTime.plusSeconds(maxSessionSeconds).getEpochSecond() - Instant.now().getEpochSecond();
+        return Math.max(0, Math.min(ttlSeconds, remainingSession));
+    }
+
+    private static JWK key(String keyId, byte[] secret) {
+        if (secret.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("API token key " + keyId + " must be at least 256 bits");
+        }
+        return new OctetSequenceKey.Builder(secret)
+                .keyID(keyId)
+                .algorithm(JWSAlgorithm.HS256)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.masingita.chatbot.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free in-process token buckets keyed by client.
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (GCRA),
+ * which is equivalent to a token bucket but needs one CAS and no allocation per request.
+ * The number of buckets is capped; idle ones are dropped by a periodic {@link #evictIdle()} sweep
+ * rather than on the request path, and keys that do not fit are reported as {@link #UNTRACKED}.
+ * Arrival times are {@link System#nanoTime()} values, so they are only ever compared by difference.
+ */
+public class LocalRateLimiter {
+
+    /** Returned when the key has no bucket and the table is full, so this tier cannot decide. */
+    public static final long UNTRACKED = -1L;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger trackedKeys = new AtomicInteger();
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxTrackedKeys;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param limit Requests allowed per window, also the burst capacity
+     * @param windowSeconds Window length in seconds
+     * @param maxTrackedKeys Maximum number of buckets held at once
+     */
+    public LocalRateLimiter(int limit, long windowSeconds, int maxTrackedKeys) {
+        this(limit, windowSeconds, maxTrackedKeys, System::nanoTime);
+    }
+
+    LocalRateLimiter(int limit, long windowSeconds, int maxTrackedKeys, LongSupplier nanoClock) {
+        this.emissionIntervalNanos = windowSeconds * 1_000_000_000L / limit;
+        this.burstToleranceNanos = emissionIntervalNanos * (limit - 1);
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Try to take one token for a key
+     * @param key Client key
+     * @return 0 if allowed, {@link #UNTRACKED} if the key cannot be tracked,
+     *         otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            // A null mapping result leaves the key absent, so the cap is never exceeded
+            // A new bucket is full: its arrival time is not in the future
+            bucket = buckets.computeIfAbsent(key, k -> reserveSlot() ? new AtomicLong(nanoClock.getAsLong()) : null);
+            if (bucket == null) {
+                return UNTRACKED;
+            }
+        }
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = bucket.get();
+            long start = tat - now > 0 ? tat : now;
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of keys currently tracked
+     * @return Tracked key count
+     */
+    public int size() {
+        return trackedKeys.get();
+    }
+
+    /**
+     * Drop buckets that have refilled completely.
+     * A bucket whose arrival time has passed is full again, so dropping it does not change behaviour.
+     * @return Number of buckets removed
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            if (bucket.get() - now <= 0 && buckets.remove(entry.getKey(), bucket)) {
+                trackedKeys.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = trackedKeys.get();
+            if (current >= maxTrackedKeys) {
+                return false;
+            }
+            if (trackedKeys.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.masingita.chatbot.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier rate limiter for chat endpoints.
+ * An in-process token bucket rejects obvious abuse without a network hop;
+ * requests it allows are checked against a Redis token bucket shared by all nodes.
+ * Clients the local tier has no room for are left to the Redis tier alone.
+ * Chat turns and country reads that need loading work have separate budgets.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "chat:rl:";
+    private static final String READ_KEY_PREFIX = "chat:rl:read:";
+
+    @Value("${chatbot.security.rate-limit.limit:50}")
+    private int limit;
+
+    @Value("${chatbot.security.rate-limit.read-limit:1000}")
+    private int readLimit;
+
+    @Value("${chatbot.security.rate-limit.duration:3600}")
+    private long durationSeconds;
+
+    @Value("${chatbot.security.rate-limit.max-local-keys:100000}")
+    private int maxLocalKeys;
+
+    @Value("${chatbot.security.rate-limit.cluster-enabled:true}")
+    private boolean clusterEnabled;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LocalRateLimiter localLimiter;
+    private LocalRateLimiter readLocalLimiter;
+    private DefaultRedisScript<List> bucketScript;
+
+    @PostConstruct
+    public void init() {
+        localLimiter = new LocalRateLimiter(limit, durationSeconds, maxLocalKeys);
+        readLocalLimiter = new LocalRateLimiter(readLimit, durationSeconds, maxLocalKeys);
+        bucketScript = new DefaultRedisScript<>();
+        bucketScript.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/rate_limit.lua")));
+        bucketScript.setResultType(List.class);
+        meterRegistry.gauge("chatbot.ratelimit.local.keys", localLimiter, LocalRateLimiter::size);
+        meterRegistry.gauge("chatbot.ratelimit.local.read.keys", readLocalLimiter, LocalRateLimiter::size);
+    }
+
+    /**
+     * Resolve the most stable identity of the caller: user, then existing session, then client address
+     * @param request Current request
+     * @return Client key and its type
+     */
+    public static ClientKey clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        HttpSession session = request.getSession(false);
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return new ClientKey("user:" + authentication.getName(), "user");
+        } else if (session != null) {
+            return new ClientKey("session:" + session.getId(), "session");
+        }
+        return new ClientKey("ip:" + request.getRemoteAddr(), "ip");
+    }
+
+    /**
+     * Take one request from the client's budget
+     * @param key Client key, e.g. {@code user:alice}
+     * @param keyType Low-cardinality key type used as a metric tag
+     * @return 0 if allowed, otherwise seconds until the client may retry
+     */
+    public long tryAcquire(String key, String keyType) {
+        return acquire(localLimiter, limit, KEY_PREFIX + key, key, keyType);
+    }
+
+    /**
+     * Take one request from the client's country read budget, {@code chatbot.security.rate-limit.read-limit}
+     * @param key Client key, e.g. {@code user:alice}
+     * @param keyType Low-cardinality key type used as a metric tag
+     * @return 0 if allowed, otherwise seconds until the client may retry
+     */
+    public long tryAcquireRead(String key, String keyType) {
+        return acquire(readLocalLimiter, readLimit, READ_KEY_PREFIX + key, key, keyType);
+    }
+
+    private long acquire(LocalRateLimiter localLimiter, int limit, String redisKey, String key, String keyType) {
+        long localWaitNanos = localLimiter.tryAcquire(key);
+        if (localWaitNanos > 0) {
+            reject("local", keyType);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(localWaitNanos));
+        }
+        if (localWaitNanos == LocalRateLimiter.UNTRACKED) {
+            meterRegistry.counter("chatbot.ratelimit.local.overflow").increment();
+            if (!clusterEnabled) {
+                // Without the Redis tier an untracked client would be unlimited
+                reject("local", keyType);
+                return 1;
+            }
+        }
+
+        if (!clusterEnabled) {
+            return 0;
+        }
+
+        try {
+            double refillPerMs = (double) limit / TimeUnit.SECONDS.toMillis(durationSeconds);
+            List<?> result = redisTemplate.execute(bucketScript, List.of(redisKey),
+                    String.valueOf(limit), String.valueOf(refillPerMs),
+                    String.valueOf(TimeUnit.SECONDS.toMillis(durationSeconds)));
+            if (result != null && ((Number) result.get(0)).longValue() == 0) {
+                reject("cluster", keyType);
+                return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(((Number) result.get(1)).longValue()));
+            }
+        } catch (Exception e) {
+            // Redis trouble must not take the chat down; the local bucket still applies
+            log.warn("Cluster rate limit check failed, using local limit only: {}", e.getMessage());
+            meterRegistry.counter("chatbot.ratelimit.errors").increment();
+        }
+        return 0;
+    }
+
+    /**
+     * Drop idle local buckets off the request path
+     */
+    @Scheduled(fixedDelayString = "${chatbot.security.rate-limit.sweep-interval-ms:30000}")
+    public void sweepLocalBuckets() {
+        int removed = localLimiter.evictIdle() + readLocalLimiter.evictIdle();
+        if (removed > 0) {
+            log.debug("Evicted {} idle local rate limit buckets", removed);
+        }
+    }
+
+    private void reject(String tier, String keyType) {
+        meterRegistry.counter("chatbot.ratelimit.rejected", "tier", tier, "key", keyType).increment();
+    }
+
+    /**
+     * Rate limit identity of a client.
+     * @param value Key, e.g. {@code user:alice}
+     * @param type Low-cardinality key type used as a metric tag
+     */
+    public record ClientKey(String value, String type) {
+    }
+}
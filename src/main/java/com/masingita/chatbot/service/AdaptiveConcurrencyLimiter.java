@@ -0,0 +1,144 @@
+package com.masingita.chatbot.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limiter for chat turns.
+ * The limit follows a latency gradient (minimum RTT / smoothed RTT) so it shrinks as soon as
+ * downstream calls slow down, and backs off multiplicatively when a turn fails.
+ * New sessions may only use part of the limit, leaving headroom for conversations in progress.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    // Re-probe the minimum RTT periodically so a permanently faster baseline is not assumed
+    private static final int MIN_RTT_RESET_SAMPLES = 1000;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    @Value("${chatbot.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${chatbot.concurrency.min-limit:4}")
+    private int minLimit;
+
+    @Value("${chatbot.concurrency.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${chatbot.concurrency.new-session-share:0.8}")
+    private double newSessionShare;
+
+    @Value("${chatbot.concurrency.smoothing:0.2}")
+    private double smoothing;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Guarded by this
+    private long minRttNanos = Long.MAX_VALUE;
+    private double smoothedRttNanos;
+    private int samples;
+
+    @PostConstruct
+    public void init() {
+        limit = initialLimit;
+        meterRegistry.gauge("chatbot.concurrency.limit", this, l -> l.limit);
+        meterRegistry.gauge("chatbot.concurrency.inflight", inFlight);
+    }
+
+    /**
+     * Try to admit a chat turn
+     * @param inProgress Whether the turn belongs to an already running conversation
+     * @return Permit to release when the turn completes, or empty if the turn should be shed
+     */
+    public Optional<Permit> tryAcquire(boolean inProgress) {
+        int allowed = (int) (inProgress ? limit : Math.max(1, limit * newSessionShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                meterRegistry.counter("chatbot.concurrency.rejected",
+                        "session", inProgress ? "in-progress" : "new").increment();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(current + 1));
+            }
+        }
+    }
+
+    /**
+     * Current concurrency limit
+     * @return Limit
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (++samples >= MIN_RTT_RESET_SAMPLES) {
+            samples = 0;
+            minRttNanos = rttNanos;
+        }
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+        smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos
+                : smoothedRttNanos * (1 - smoothing) + rttNanos * smoothing;
+
+        // An under-used limit says nothing about capacity, so do not grow it
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, minRttNanos / smoothedRttNanos));
+        double queueAllowance = Math.sqrt(limit);
+        double target = limit * gradient + queueAllowance;
+        limit = clamp(limit * (1 - smoothing) + target * smoothing);
+    }
+
+    private synchronized void onDrop() {
+        limit = clamp(limit * BACKOFF_RATIO);
+        log.debug("Concurrency limit reduced to {} after failed turn", (int) limit);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    /**
+     * Admission for one chat turn; exactly one of the release methods must be called.
+     */
+    public class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Release after a successful turn, feeding its latency into the limit
+         */
+        public void onSuccess() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        /**
+         * Release after a failed or timed-out turn, backing off the limit
+         */
+        public void onDropped() {
+            inFlight.decrementAndGet();
+            onDrop();
+        }
+    }
+}
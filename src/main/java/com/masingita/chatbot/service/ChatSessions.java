@@ -0,0 +1,39 @@
+package com.masingita.chatbot.service;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.util.WebUtils;
+
+import java.util.UUID;
+
+/**
+ * Conversation identity of a browser session.
+ * Conversations are keyed by a random chat id kept in the HttpSession rather than by the servlet
+ * session id, so an API token can continue the conversation without carrying the session cookie.
+ */
+public final class ChatSessions {
+
+    /** Random id of the browser session's conversation. */
+    public static final String CHAT_ID_ATTRIBUTE = "chatbot.chatId";
+
+    /** Set once an API token continues the conversation; the token then outlives the browser session. */
+    public static final String TOKEN_ISSUED_ATTRIBUTE = "chatbot.tokenIssued";
+
+    private ChatSessions() {
+    }
+
+    /**
+     * Chat id of a browser session, created on first use
+     * @param session Browser session
+     * @return Chat id
+     */
+    public static String chatId(HttpSession session) {
+        synchronized (WebUtils.getSessionMutex(session)) {
+            String chatId = (String) session.getAttribute(CHAT_ID_ATTRIBUTE);
+            if (chatId == null) {
+                chatId = UUID.randomUUID().toString();
+                session.setAttribute(CHAT_ID_ATTRIBUTE, chatId);
+            }
+            return chatId;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.masingita.chatbot.service;
 
+import com.masingita.chatbot.diagnostics.TurnPhase;
+import com.masingita.chatbot.diagnostics.TurnRecorder;
 import com.masingita.chatbot.model.ConversationContext;
 import com.masingita.chatbot.model.ConversationHistory;
+import com.masingita.chatbot.model.CountryBatchResponse;
 import com.masingita.chatbot.model.CountryInfo;
 import com.masingita.chatbot.repository.ConversationRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Enhanced chatbot service providing conversation management.
@@ -24,6 +31,15 @@ public class ChatbotService {
     @Autowired
     private ConversationRepository conversationRepository;
 
+    @Autowired
+    private ConversationContextStore contextStore;
+    
+    @Autowired
+    private ConversationMetrics conversationMetrics;
+    
+    @Autowired
+    private TurnRecorder turnRecorder;
+
     /**
      * Get property for a specific country
      * @param country Country name
@@ -87,7 +103,49 @@ public class ChatbotService {
         conversation.addMessage("bot", botResponse);
         
         // Save to repository
-        return conversationRepository.save(conversation);
+        ConversationHistory saved = conversationMetrics.timeSave("save", () -> conversationRepository.save(conversation));
+        conversationMetrics.sampleDocumentSize(sessionId);
+        return saved;
+    }
+    
+    /**
+     * Load conversation context for the current turn
+     * @param sessionId Session identifier
+     * @return Conversation context from the hot tier, last checkpoint, or a new one
+     */
+    public ConversationContext loadContext(String sessionId) {
+        return contextStore.load(sessionId);
+    }
+    
+    /**
+     * Record a completed turn in the hot tier, checkpointing to MongoDB when due
+     * @param sessionId Session identifier
+     * @param userId User identifier
+     * @param userMessage User message
+     * @param botResponse Bot response
+     * @param context Updated conversation context
+     */
+    public void recordTurn(String sessionId, String userId, String userMessage, String botResponse,
+                           ConversationContext context) {
+        contextStore.save(sessionId, userId, userMessage, botResponse, context);
+    }
+    
+    /**
+     * Whether a conversation has completed turns that are still held in the hot tier
+     * @param sessionId Session identifier
+     * @return True for conversations under way
+     */
+    public boolean isConversationActive(String sessionId) {
+        return contextStore.isActive(sessionId);
+    }
+    
+    /**
+     * Persist a session to MongoDB and release its hot state
+     * @param sessionId Session identifier
+     * @param userId User identifier
+     */
+    public void endConversation(String sessionId, String userId) {
+        contextStore.endSession(sessionId, userId);
     }
     
     /**
@@ -111,6 +169,76 @@ public class ChatbotService {
             return "Country information not available.";
         }
         
+        try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.RENDER)) {
+            return renderCountryInfo(info, detailedMode);
+        }
+    }
+    
+    /**
+     * Compare several countries side by side.
+     * All countries are looked up in one batch, so cache misses are fetched concurrently.
+     * @param countries Country names
+     * @return Comparison table, followed by the countries that could not be found
+     */
+    public String compareCountries(List<String> countries) {
+        CountryBatchResponse batch = countryDataService.getCountryInfos(countries);
+        List<String> missing = batch.getFailures().stream()
+                .map(CountryBatchResponse.Failure::getCountry)
+                .collect(Collectors.toList());
+        if (batch.getCountries().size() < 2) {
+            return "I need at least two countries I know to compare." +
+                   (missing.isEmpty() ? "" : " Not found: " + String.join(", ", missing) + ".");
+        }
+        
+        try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.RENDER)) {
+            String table = renderComparison(new ArrayList<>(batch.getCountries().values()));
+            return missing.isEmpty() ? table : table + "\nNot found: " + String.join(", ", missing) + ".";
+        }
+    }
+    
+    private String renderComparison(List<CountryInfo> infos) {
+        List<String> labels = List.of("", "Population", "Area", "Region", "Languages", "Currencies");
+        List<Function<CountryInfo, String>> rows = List.of(
+                CountryInfo::getName,
+                info -> info.getPopulation() > 0 ? info.getFormattedPopulation() : null,
+                info -> info.getArea() > 0 ? info.getFormattedArea() : null,
+                CountryInfo::getRegion,
+                info -> joinOrNull(info.getLanguages()),
+                info -> joinOrNull(info.getCurrencies()));
+        
+        // Monospace table: one column per country, one row per attribute
+        String[][] cells = new String[rows.size()][infos.size() + 1];
+        int[] widths = new int[infos.size() + 1];
+        for (int row = 0; row < rows.size(); row++) {
+            cells[row][0] = labels.get(row);
+            for (int col = 0; col < infos.size(); col++) {
+                String value = rows.get(row).apply(infos.get(col));
+                cells[row][col + 1] = truncate(value == null || value.isBlank() ? "-" : value, 24);
+            }
+            for (int col = 0; col < widths.length; col++) {
+                widths[col] = Math.max(widths[col], cells[row][col].length());
+            }
+        }
+        
+        StringBuilder builder = new StringBuilder("Comparison:\n\n");
+        for (String[] row : cells) {
+            for (int col = 0; col < row.length; col++) {
+                builder.append(col == 0 ? "" : " | ").append(String.format("%-" + widths[col] + "s", row[col]));
+            }
+            builder.append("\n");
+        }
+        return builder.toString();
+    }
+    
+    private static String joinOrNull(List<String> values) {
+        return values == null || values.isEmpty() ? null : String.join(", ", values);
+    }
+    
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength - 1) + "…";
+    }
+    
+    private String renderCountryInfo(CountryInfo info, boolean detailedMode) {
         StringBuilder builder = new StringBuilder();
         builder.append("Information about ").append(info.getName()).append(":\n\n");
         
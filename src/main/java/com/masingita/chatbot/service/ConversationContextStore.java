@@ -0,0 +1,295 @@
+package com.masingita.chatbot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.masingita.chatbot.model.ConversationContext;
+import com.masingita.chatbot.model.ConversationHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two-tier store for conversation context.
+ * Redis holds a compact hash per session with a sliding TTL and buffers the turn's messages;
+ * MongoDB only receives the context and buffered messages on checkpoints or at session end.
+ * A shadow key expires {@code chatbot.session.flush-grace-seconds} before the session data,
+ * so abandoned sessions can still be flushed when Redis reports the shadow key expired.
+ */
+@Service
+@Slf4j
+public class ConversationContextStore {
+
+    private static final String CONTEXT_KEY_PREFIX = "chat:ctx:";
+    private static final String PENDING_KEY_PREFIX = "chat:pending:";
+    private static final String LIVE_KEY_PREFIX = "chat:live:";
+    private static final String FLUSH_CLAIM_PREFIX = "chat:flush:";
+
+    // Single-letter hash fields keep every session hash small
+    static final String FIELD_STEP = "s";
+    static final String FIELD_COUNTRY = "c";
+    static final String FIELD_DETAILED = "d";
+    static final String FIELD_INTERACTIONS = "n";
+    static final String FIELD_LAST_QUERY = "q";
+    static final String FIELD_CHECKPOINT = "k";
+    static final String FIELD_USER = "u";
+
+    private static final String EXIT_STEP = "EXIT";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConversationMetrics conversationMetrics;
+
+    @Value("${chatbot.session.ttl-seconds:1800}")
+    private long sessionTtlSeconds;
+
+    @Value("${chatbot.session.checkpoint-interval:10}")
+    private int checkpointInterval;
+
+    @Value("${chatbot.session.flush-grace-seconds:300}")
+    private long flushGraceSeconds;
+
+    /**
+     * Load context for a session, refreshing its TTL in the same round trip.
+     * Falls back to the last Mongo checkpoint when the hot entry has expired.
+     * @param sessionId Session identifier
+     * @return Conversation context, new if the session is unknown
+     */
+    public ConversationContext load(String sessionId) {
+        String contextKey = CONTEXT_KEY_PREFIX + sessionId;
+        String pendingKey = PENDING_KEY_PREFIX + sessionId;
+        String liveKey = LIVE_KEY_PREFIX + sessionId;
+        long dataTtlSeconds = sessionTtlSeconds + flushGraceSeconds;
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.hGetAll(contextKey);
+            conn.expire(liveKey, sessionTtlSeconds);
+            conn.expire(contextKey, dataTtlSeconds);
+            conn.expire(pendingKey, dataTtlSeconds);
+            return null;
+        });
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> hash = (Map<String, String>) results.get(0);
+        if (hash != null && !hash.isEmpty()) {
+            return fromHash(hash);
+        }
+
+        // Cold tier: resume from the last checkpoint if there is one, without fetching the messages
+        Query query = Query.query(Criteria.where("sessionId").is(sessionId));
+        query.fields().include("context");
+        ConversationHistory checkpoint = mongoTemplate.findOne(query, ConversationHistory.class);
+        ConversationContext context = checkpoint != null && checkpoint.getContext() != null
+                ? checkpoint.getContext()
+                : new ConversationContext();
+        context.setCheckpointedInteractionCount(context.getInteractionCount());
+        return context;
+    }
+
+    /**
+     * Whether a session has completed at least one turn within its TTL
+     * @param sessionId Session identifier
+     * @return True if the session's shadow key exists
+     */
+    public boolean isActive(String sessionId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(LIVE_KEY_PREFIX + sessionId));
+    }
+
+    /**
+     * Store the context and buffer the turn's messages in one round trip.
+     * Checkpoints to MongoDB every {@code chatbot.session.checkpoint-interval} turns and on exit.
+     * @param sessionId Session identifier
+     * @param userId User identifier
+     * @param userMessage User message
+     * @param botResponse Bot response
+     * @param context Updated conversation context
+     */
+    public void save(String sessionId, String userId, String userMessage, String botResponse,
+                     ConversationContext context) {
+        String contextKey = CONTEXT_KEY_PREFIX + sessionId;
+        String pendingKey = PENDING_KEY_PREFIX + sessionId;
+        String liveKey = LIVE_KEY_PREFIX + sessionId;
+        long dataTtlSeconds = sessionTtlSeconds + flushGraceSeconds;
+        Map<String, String> hash = toHash(context);
+        if (userId != null) {
+            hash.put(FIELD_USER, userId);
+        }
+        String userEntry = encodeMessage("user", userMessage);
+        String botEntry = encodeMessage("bot", botResponse);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.hMSet(contextKey, hash);
+            if (context.getSelectedCountry() == null) {
+                conn.hDel(contextKey, FIELD_COUNTRY);
+            }
+            conn.rPush(pendingKey, userEntry, botEntry);
+            conn.set(liveKey, "", Expiration.seconds(sessionTtlSeconds), SetOption.UPSERT);
+            conn.expire(contextKey, dataTtlSeconds);
+            conn.expire(pendingKey, dataTtlSeconds);
+            return null;
+        });
+
+        if (EXIT_STEP.equals(context.getCurrentStep())
+                || context.getInteractionsSinceCheckpoint() >= checkpointInterval) {
+            checkpoint(sessionId, userId, context);
+        }
+    }
+
+    /**
+     * Persist the context and buffered messages to MongoDB.
+     * @param sessionId Session identifier
+     * @param userId User identifier
+     * @param context Current conversation context
+     */
+    public void checkpoint(String sessionId, String userId, ConversationContext context) {
+        String pendingKey = PENDING_KEY_PREFIX + sessionId;
+        List<String> pending = redisTemplate.opsForList().range(pendingKey, 0, -1);
+        List<ConversationHistory.ChatMessage> messages = new ArrayList<>();
+        if (pending != null) {
+            for (String entry : pending) {
+                ConversationHistory.ChatMessage message = decodeMessage(entry);
+                if (message != null) {
+                    messages.add(message);
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("context", context)
+                .set("lastUpdated", now)
+                .setOnInsert("createdAt", now)
+                .push("messages").each(messages.toArray());
+        if (userId != null) {
+            update.set("userId", userId);
+        }
+        Query query = Query.query(Criteria.where("sessionId").is(sessionId));
+        conversationMetrics.timeSave("checkpoint", () -> {
+            try {
+                return mongoTemplate.upsert(query, update, ConversationHistory.class);
+            } catch (DuplicateKeyException e) {
+                // A concurrent checkpoint inserted the document first; the retry updates it
+                return mongoTemplate.upsert(query, update, ConversationHistory.class);
+            }
+        });
+        conversationMetrics.sampleDocumentSize(sessionId);
+
+        // Trim only what was persisted so messages buffered by a concurrent turn survive
+        if (pending != null && !pending.isEmpty()) {
+            redisTemplate.opsForList().trim(pendingKey, pending.size(), -1);
+        }
+        context.setCheckpointedInteractionCount(context.getInteractionCount());
+        redisTemplate.opsForHash().put(CONTEXT_KEY_PREFIX + sessionId, FIELD_CHECKPOINT,
+                String.valueOf(context.getInteractionCount()));
+        log.debug("Checkpointed session {} with {} buffered messages", sessionId, messages.size());
+    }
+
+    /**
+     * Flush a session to MongoDB and drop its hot state.
+     * @param sessionId Session identifier
+     * @param userId User identifier, or null to use the one recorded with the session
+     */
+    public void endSession(String sessionId, String userId) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(CONTEXT_KEY_PREFIX + sessionId);
+        if (!hash.isEmpty()) {
+            Map<String, String> fields = new HashMap<>();
+            hash.forEach((k, v) -> fields.put(k.toString(), v.toString()));
+            checkpoint(sessionId, userId != null ? userId : fields.get(FIELD_USER), fromHash(fields));
+        }
+        redisTemplate.delete(List.of(CONTEXT_KEY_PREFIX + sessionId, PENDING_KEY_PREFIX + sessionId,
+                LIVE_KEY_PREFIX + sessionId));
+    }
+
+    /**
+     * Flush a session that ended without an explicit goodbye: invalidated, logged out or idle.
+     * Every node hears the same expiry notification, so only the node that claims the flush runs it.
+     * @param sessionId Session identifier
+     */
+    public void flushAbandoned(String sessionId) {
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(FLUSH_CLAIM_PREFIX + sessionId, "1",
+                Duration.ofSeconds(flushGraceSeconds));
+        if (!Boolean.TRUE.equals(claimed)) {
+            return;
+        }
+        endSession(sessionId, null);
+        log.debug("Flushed abandoned session {}", sessionId);
+    }
+
+    /**
+     * Session whose shadow key an expired-key notification refers to
+     * @param expiredKey Key reported by Redis
+     * @return Session identifier, or null for keys that are not session shadow keys
+     */
+    public static String sessionIdOfExpiredKey(String expiredKey) {
+        return expiredKey.startsWith(LIVE_KEY_PREFIX) ? expiredKey.substring(LIVE_KEY_PREFIX.length()) : null;
+    }
+
+    private static Map<String, String> toHash(ConversationContext context) {
+        Map<String, String> hash = new HashMap<>(8);
+        if (context.getCurrentStep() != null) hash.put(FIELD_STEP, context.getCurrentStep());
+        if (context.getSelectedCountry() != null) hash.put(FIELD_COUNTRY, context.getSelectedCountry());
+        if (context.getLastQuery() != null) hash.put(FIELD_LAST_QUERY, context.getLastQuery());
+        hash.put(FIELD_DETAILED, context.isDetailedMode() ? "1" : "0");
+        hash.put(FIELD_INTERACTIONS, String.valueOf(context.getInteractionCount()));
+        hash.put(FIELD_CHECKPOINT, String.valueOf(context.getCheckpointedInteractionCount()));
+        return hash;
+    }
+
+    private static ConversationContext fromHash(Map<String, String> hash) {
+        ConversationContext context = new ConversationContext();
+        context.setCurrentStep(hash.get(FIELD_STEP));
+        context.setSelectedCountry(hash.get(FIELD_COUNTRY));
+        context.setLastQuery(hash.get(FIELD_LAST_QUERY));
+        context.setDetailedMode("1".equals(hash.get(FIELD_DETAILED)));
+        context.setInteractionCount(Integer.parseInt(hash.getOrDefault(FIELD_INTERACTIONS, "0")));
+        context.setCheckpointedInteractionCount(Integer.parseInt(hash.getOrDefault(FIELD_CHECKPOINT, "0")));
+        return context;
+    }
+
+    private String encodeMessage(String role, String content) {
+        ConversationHistory.ChatMessage message = new ConversationHistory.ChatMessage();
+        message.setRole(role);
+        message.setContent(content);
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode chat message", e);
+        }
+    }
+
+    private ConversationHistory.ChatMessage decodeMessage(String entry) {
+        try {
+            return objectMapper.readValue(entry, ConversationHistory.ChatMessage.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable buffered message: {}", e.getMessage());
+            return null;
+        }
+    }
+}
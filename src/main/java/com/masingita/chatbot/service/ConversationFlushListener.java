@@ -0,0 +1,90 @@
+package com.masingita.chatbot.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.web.session.HttpSessionDestroyedEvent;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpSession;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Persists conversations that end without an explicit goodbye.
+ * Browser conversations are flushed when the HttpSession is destroyed, unless an API token
+ * continues them; every conversation, including bearer-token ones, is flushed when Redis reports
+ * its shadow key expired.
+ */
+@Component
+@Slf4j
+public class ConversationFlushListener implements MessageListener {
+
+    public static final String EXPIRED_KEYS_PATTERN = "__keyevent@*__:expired";
+    private static final String NOTIFY_CONFIG = "notify-keyspace-events";
+
+    @Autowired
+    private ConversationContextStore contextStore;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${chatbot.session.configure-keyspace-notifications:true}")
+    private boolean configureKeyspaceNotifications;
+
+    @PostConstruct
+    public void init() {
+        if (!configureKeyspaceNotifications) {
+            return;
+        }
+        try {
+            // Only enable expiry events when nothing is configured, so operator settings win
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                Properties config = connection.serverCommands().getConfig(NOTIFY_CONFIG);
+                String current = config != null ? config.getProperty(NOTIFY_CONFIG, "") : "";
+                if (current.isEmpty()) {
+                    connection.serverCommands().setConfig(NOTIFY_CONFIG, "Ex");
+                } else {
+                    log.info("Redis keyspace notifications already configured as '{}'", current);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not enable Redis expiry notifications, idle sessions are only flushed on checkpoints: {}",
+                    e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String sessionId = ConversationContextStore.sessionIdOfExpiredKey(
+                new String(message.getBody(), StandardCharsets.UTF_8));
+        if (sessionId != null) {
+            flush(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onSessionDestroyed(HttpSessionDestroyedEvent event) {
+        HttpSession session = event.getSession();
+        String chatId = (String) session.getAttribute(ChatSessions.CHAT_ID_ATTRIBUTE);
+        // A token may still be using the conversation; its hot state expiring flushes it instead
+        if (chatId != null && session.getAttribute(ChatSessions.TOKEN_ISSUED_ATTRIBUTE) == null) {
+            flush(chatId);
+        }
+    }
+
+    private void flush(String sessionId) {
+        try {
+            contextStore.flushAbandoned(sessionId);
+        } catch (Exception e) {
+            log.warn("Could not flush session {}: {}", sessionId, e.getMessage());
+        }
+    }
+}
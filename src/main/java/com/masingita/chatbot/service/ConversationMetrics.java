@@ -0,0 +1,79 @@
+package com.masingita.chatbot.service;
+
+import com.masingita.chatbot.model.ConversationHistory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Metrics for conversation persistence.
+ * Times MongoDB writes and samples the stored size of ConversationHistory documents,
+ * which grow with every checkpoint.
+ */
+@Component
+@Slf4j
+public class ConversationMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${chatbot.metrics.document-size-sample-rate:0.1}")
+    private double documentSizeSampleRate;
+
+    /**
+     * Time a MongoDB write
+     * @param operation Low-cardinality operation name, e.g. checkpoint
+     * @param save Write to perform
+     * @return Result of the write
+     */
+    public <T> T timeSave(String operation, Supplier<T> save) {
+        return Timer.builder("chatbot.mongo.save")
+                .description("Latency of conversation writes to MongoDB")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(save);
+    }
+
+    /**
+     * Record the BSON size of a session's document for a sample of calls.
+     * The size is computed server-side so the document itself is never transferred.
+     * @param sessionId Session identifier
+     */
+    public void sampleDocumentSize(String sessionId) {
+        if (ThreadLocalRandom.current().nextDouble() >= documentSizeSampleRate) {
+            return;
+        }
+        try {
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("sessionId").is(sessionId)),
+                    Aggregation.project().and(context -> new Document("$bsonSize", "$$ROOT")).as("size"));
+            Document result = mongoTemplate.aggregate(aggregation, ConversationHistory.class, Document.class)
+                    .getUniqueMappedResult();
+            if (result != null && result.get("size") instanceof Number size) {
+                DistributionSummary.builder("chatbot.conversation.document.size")
+                        .description("Stored size of conversation documents")
+                        .baseUnit("bytes")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(size.doubleValue());
+            }
+        } catch (Exception e) {
+            log.debug("Could not sample conversation document size: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.masingita.chatbot.service;
+
+import com.masingita.chatbot.model.ConversationDailyRollup;
+import com.masingita.chatbot.model.ConversationHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background retention purge for old conversations.
+ * BATCH mode deletes expired documents in bounded {@code _id} ranges at a capped rate, optionally
+ * compacting each range into daily analytics rollups first; TTL mode hands expiry to a MongoDB
+ * TTL index on {@code lastUpdated}. Only one node purges at a time.
+ */
+@Service
+@Slf4j
+public class ConversationRetentionJob {
+
+    public enum Mode { BATCH, TTL }
+
+    private static final String COLLECTION = "conversations";
+    private static final String TTL_INDEX = "lastUpdated_ttl";
+    private static final String RANGE_INDEX = "lastUpdated_idx";
+    private static final String LOCK_KEY = "chat:retention:lock";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chatbot.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chatbot.retention.mode:BATCH}")
+    private Mode mode;
+
+    @Value("${chatbot.retention.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${chatbot.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chatbot.retention.max-deletes-per-second:2000}")
+    private int maxDeletesPerSecond;
+
+    @Value("${chatbot.retention.max-batches-per-run:1000}")
+    private int maxBatchesPerRun;
+
+    @Value("${chatbot.retention.compact-before-purge:true}")
+    private boolean compactBeforePurge;
+
+    private Counter deletedCounter;
+    private Counter compactedCounter;
+    private Timer batchTimer;
+    private final AtomicLong lastRunDeleted = new AtomicLong();
+    private final AtomicLong lastRunDocsPerSecond = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        deletedCounter = meterRegistry.counter("chatbot.retention.deleted");
+        compactedCounter = meterRegistry.counter("chatbot.retention.compacted");
+        batchTimer = Timer.builder("chatbot.retention.batch")
+                .description("Time to compact and delete one retention batch")
+                .register(meterRegistry);
+        meterRegistry.gauge("chatbot.retention.last.run.deleted", lastRunDeleted);
+        meterRegistry.gauge("chatbot.retention.last.run.throughput", lastRunDocsPerSecond);
+    }
+
+    /**
+     * Create the index the configured mode relies on and drop the other one
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!enabled) {
+            return;
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(ConversationHistory.class);
+        List<String> existing = indexOps.getIndexInfo().stream().map(IndexInfo::getName).toList();
+
+        // MongoDB refuses two indexes on the same key with different TTL options
+        if (mode == Mode.TTL) {
+            if (existing.contains(RANGE_INDEX)) indexOps.dropIndex(RANGE_INDEX);
+            indexOps.ensureIndex(new Index().on("lastUpdated", Sort.Direction.ASC)
+                    .named(TTL_INDEX).expire(Duration.ofDays(retentionDays)));
+        } else {
+            if (existing.contains(TTL_INDEX)) indexOps.dropIndex(TTL_INDEX);
+            indexOps.ensureIndex(new Index().on("lastUpdated", Sort.Direction.ASC).named(RANGE_INDEX));
+        }
+    }
+
+    /**
+     * Scheduled entry point; a no-op in TTL mode
+     */
+    @Scheduled(cron = "${chatbot.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (!enabled || mode != Mode.BATCH) {
+            return;
+        }
+        String owner = nodeName();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, owner, Duration.ofHours(1));
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Retention purge already running on another node");
+            return;
+        }
+        try {
+            purge(LocalDateTime.now().minusDays(retentionDays));
+        } finally {
+            if (owner.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * Delete conversations last updated before the cutoff in rate-limited batches.
+     * Compaction is at-least-once: a crash between compacting and deleting a range re-counts it.
+     * @param cutoff Conversations last updated before this are purged
+     * @return Number of deleted conversations
+     */
+    public long purge(LocalDateTime cutoff) {
+        long started = System.nanoTime();
+        long minBatchNanos = maxDeletesPerSecond > 0 ? 1_000_000_000L * batchSize / maxDeletesPerSecond : 0;
+        long deleted = 0;
+        Object lastId = null;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            long batchStart = System.nanoTime();
+
+            Criteria expired = Criteria.where("lastUpdated").lt(cutoff);
+            Query page = Query.query(lastId == null ? expired : expired.and("_id").gt(lastId))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(batchSize);
+            page.fields().include("_id");
+            List<Document> ids = mongoTemplate.find(page, Document.class, COLLECTION);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Object firstId = ids.get(0).get("_id");
+            lastId = ids.get(ids.size() - 1).get("_id");
+            Criteria range = Criteria.where("_id").gte(firstId).lte(lastId).and("lastUpdated").lt(cutoff);
+
+            Object rangeEnd = lastId;
+            long removed = batchTimer.record(() -> {
+                if (compactBeforePurge) {
+                    compactedCounter.increment(compact(range));
+                }
+                return mongoTemplate.remove(Query.query(range), COLLECTION).getDeletedCount();
+            });
+            deleted += removed;
+            deletedCounter.increment(removed);
+
+            if (batch % 20 == 19) {
+                log.info("Retention purge progress: {} conversations deleted, last _id {}", deleted, rangeEnd);
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+
+            // Cap delete throughput so foreground writes keep their I/O budget
+            long sleepNanos = minBatchNanos - (System.nanoTime() - batchStart);
+            if (sleepNanos > 0) {
+                try {
+                    Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        lastRunDeleted.set(deleted);
+        lastRunDocsPerSecond.set(seconds > 0 ? Math.round(deleted / seconds) : 0);
+        log.info("Retention purge deleted {} conversations older than {} in {} s", deleted, cutoff,
+                String.format("%.1f", seconds));
+        return deleted;
+    }
+
+    /**
+     * Fold a range of expired conversations into the daily rollups
+     * @param range Criteria selecting the batch
+     * @return Number of conversations compacted
+     */
+    private long compact(Criteria range) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(range),
+                Aggregation.project()
+                        .and(DateOperators.DateToString.dateOf("lastUpdated").toString("%Y-%m-%d")).as("day")
+                        .and("context.selectedCountry").as("country")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("messages").then(Collections.emptyList()))).as("messageCount")
+                        .and(ConditionalOperators.when(Criteria.where("context.detailedMode").is(true))
+                                .then(1).otherwise(0)).as("detailed"),
+                Aggregation.group("day", "country")
+                        .count().as("sessions")
+                        .sum("messageCount").as("messages")
+                        .sum("detailed").as("detailed"));
+        List<Document> rows = mongoTemplate.aggregate(aggregation, COLLECTION, Document.class).getMappedResults();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ConversationDailyRollup.class);
+        long sessions = 0;
+        for (Document row : rows) {
+            Document key = row.get("_id", Document.class);
+            long rowSessions = ((Number) row.get("sessions")).longValue();
+            Update update = new Update()
+                    .inc("sessions", rowSessions)
+                    .inc("messages", ((Number) row.get("messages")).longValue())
+                    .inc("detailedSessions", ((Number) row.get("detailed")).longValue())
+                    .set("lastUpdated", now);
+            String country = key.getString("country");
+            if (country != null) {
+                // Field names cannot contain dots
+                update.inc("countrySelections." + country.replace('.', '_'), rowSessions);
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(key.getString("day"))), update);
+            sessions += rowSessions;
+        }
+        bulk.execute();
+        return sessions;
+    }
+
+    private static String nodeName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-" + ProcessHandle.current().pid();
+        }
+    }
+}
@@ -2,33 +2,79 @@ package com.masingita.chatbot.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.masingita.chatbot.cache.DatasetChangedEvent;
+import com.masingita.chatbot.cache.DatasetVersionService;
+import com.masingita.chatbot.diagnostics.TurnPhase;
+import com.masingita.chatbot.diagnostics.TurnRecorder;
+import com.masingita.chatbot.model.CountryBatchResponse;
 import com.masingita.chatbot.model.CountryInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
-import javax.annotation.PostConstruct;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
  * Enhanced country data service with API integration and caching.
  * Fetches country data from external API with fallback to local data.
+ * Outbound calls and cache loads are timed with low-cardinality tags.
+ * Batch lookups fetch cache misses in parallel on a small bounded pool.
+ * Local data is read from {@code chatbot.dataset.location}, and API data is fingerprinted
+ * periodically, so changes to either source are versioned and broadcast to all nodes.
  */
 @Service
 @Slf4j
 public class CountryDataService {
 
-    private Map<String, CountryInfo> localCountryData;
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> COUNTRY_LIST_TYPE =
+            new ParameterizedTypeReference<>() {};
+    
+    static final String API_DIGESTS_KEY = "chat:dataset:api-digests";
+    private static final String API_CHECK_CLAIM_KEY = "chat:dataset:api-check";
+    private static final String API_FINGERPRINT_FIELDS = "name,capital,region,subregion,population,area";
+    
+    private volatile Map<String, CountryInfo> localCountryData;
+    
+    @Value("${chatbot.dataset.location:classpath:countries_data.json}")
+    private Resource datasetLocation;
+    
+    @Value("${chatbot.dataset.api-check-interval-ms:21600000}")
+    private long apiCheckIntervalMs;
     
     @Value("${chatbot.api.countries-url}")
     private String countriesApiUrl;
@@ -41,6 +87,32 @@ public class CountryDataService {
     
     @Autowired
     private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DatasetVersionService datasetVersionService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private TurnRecorder turnRecorder;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Value("${chatbot.metrics.country-tags:false}")
+    private boolean countryTagsEnabled;
+    
+    @Value("${chatbot.api.batch-parallelism:8}")
+    private int batchParallelism;
+    
+    @Value("${chatbot.api.batch-timeout-seconds:15}")
+    private long batchTimeoutSeconds;
+    
+    private ExecutorService lookupExecutor;
 
     /**
      * Initialize local data as fallback mechanism
@@ -48,15 +120,195 @@ public class CountryDataService {
     @PostConstruct
     public void init() {
         try {
-            localCountryData = new ObjectMapper().readValue(
-                new ClassPathResource("countries_data.json").getInputStream(),
-                new TypeReference<Map<String, CountryInfo>>() {}
-            );
+            localCountryData = new HashMap<>(readLocalData());
             log.info("Loaded {} countries from local data", localCountryData.size());
         } catch (IOException e) {
             log.error("Failed to load local country data", e);
             localCountryData = new HashMap<>();
         }
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        lookupExecutor = Executors.newFixedThreadPool(batchParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "country-lookup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+    
+    private Map<String, CountryInfo> readLocalData() throws IOException {
+        // The shared mapper is already built; a private one would be constructed and warmed up during startup
+        try (InputStream in = datasetLocation.getInputStream()) {
+            return objectMapper.readValue(in, new TypeReference<Map<String, CountryInfo>>() {});
+        }
+    }
+    
+    /**
+     * Re-read local data from {@code chatbot.dataset.location} and broadcast the countries that changed to all nodes
+     * @return New dataset version, or the current one if nothing changed
+     * @throws IOException If the local data cannot be read
+     */
+    public long refreshLocalData() throws IOException {
+        Map<String, CountryInfo> fresh = readLocalData();
+        Map<String, CountryInfo> current = localCountryData;
+        
+        Set<String> changed = new HashSet<>();
+        fresh.forEach((key, info) -> {
+            if (!info.equals(current.get(key))) {
+                changed.add(key);
+            }
+        });
+        Set<String> removed = new HashSet<>(current.keySet());
+        removed.removeAll(fresh.keySet());
+        changed.addAll(removed);
+        
+        if (changed.isEmpty()) {
+            return datasetVersionService.getCurrentVersion();
+        }
+        boolean membershipChanged = !removed.isEmpty() || !current.keySet().containsAll(fresh.keySet());
+        return datasetVersionService.publishChange(changed, membershipChanged);
+    }
+    
+    /**
+     * Periodic API data check; only the node that claims the interval runs it
+     */
+    @Scheduled(fixedDelayString = "${chatbot.dataset.api-check-interval-ms:21600000}",
+               initialDelayString = "${chatbot.dataset.api-check-interval-ms:21600000}")
+    public void checkApiData() {
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(API_CHECK_CLAIM_KEY, "1",
+                Duration.ofMillis(Math.max(1000, apiCheckIntervalMs / 2)));
+        if (Boolean.TRUE.equals(claimed)) {
+            refreshApiData();
+        }
+    }
+    
+    /**
+     * Fingerprint the API's country data and broadcast the countries whose data changed.
+     * Fingerprints are kept in Redis so all nodes share one baseline; the first run only records it.
+     * @return New dataset version, or the current one if nothing changed
+     */
+    public long refreshApiData() {
+        Map<String, String> fresh;
+        try {
+            fresh = fetchApiFingerprints();
+        } catch (Exception e) {
+            log.warn("Could not fingerprint countries API data: {}", e.getMessage());
+            return datasetVersionService.getCurrentVersion();
+        }
+        if (fresh.isEmpty()) {
+            return datasetVersionService.getCurrentVersion();
+        }
+        
+        Map<String, String> current = redisTemplate.<String, String>opsForHash().entries(API_DIGESTS_KEY);
+        redisTemplate.opsForHash().putAll(API_DIGESTS_KEY, fresh);
+        if (current.isEmpty()) {
+            log.info("Recorded API fingerprints for {} countries", fresh.size());
+            return datasetVersionService.getCurrentVersion();
+        }
+        
+        Set<String> changed = new HashSet<>();
+        fresh.forEach((key, digest) -> {
+            if (!digest.equals(current.get(key))) {
+                changed.add(key);
+            }
+        });
+        Set<String> removed = new HashSet<>(current.keySet());
+        removed.removeAll(fresh.keySet());
+        changed.addAll(removed);
+        if (!removed.isEmpty()) {
+            redisTemplate.opsForHash().delete(API_DIGESTS_KEY, removed.toArray());
+        }
+        
+        if (changed.isEmpty()) {
+            return datasetVersionService.getCurrentVersion();
+        }
+        boolean membershipChanged = !removed.isEmpty() || !current.keySet().containsAll(fresh.keySet());
+        return datasetVersionService.publishChange(changed, membershipChanged);
+    }
+    
+    private Map<String, String> fetchApiFingerprints() throws IOException {
+        // Only the fields CountryInfo takes from the API, so unrelated upstream changes are ignored
+        ResponseEntity<List<Map<String, Object>>> response = callApi("all", countriesApiUrl + "/all?fields=" + API_FINGERPRINT_FIELDS);
+        Map<String, String> fingerprints = new HashMap<>();
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return fingerprints;
+        }
+        for (Map<String, Object> countryMap : response.getBody()) {
+            Map<String, String> nameMap = (Map<String, String>) countryMap.get("name");
+            if (nameMap == null || nameMap.get("common") == null) {
+                continue;
+            }
+            // Sorted keys so the same data always hashes the same
+            byte[] canonical = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(countryMap);
+            fingerprints.put(nameMap.get("common").toLowerCase(), DigestUtils.md5DigestAsHex(canonical));
+        }
+        return fingerprints;
+    }
+    
+    /**
+     * Apply a dataset change broadcast by any node, rebuilding only affected entries
+     * @param event Dataset change
+     */
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        Map<String, CountryInfo> fresh;
+        try {
+            fresh = readLocalData();
+        } catch (IOException e) {
+            log.error("Failed to reload local country data for version {}", event.getVersion(), e);
+            return;
+        }
+        
+        if (event.isFullRebuild()) {
+            localCountryData = new HashMap<>(fresh);
+        } else {
+            // Copy-on-write so readers never observe a half-applied update
+            Map<String, CountryInfo> updated = new HashMap<>(localCountryData);
+            for (String key : event.getChangedKeys()) {
+                CountryInfo info = fresh.get(key);
+                if (info != null) {
+                    updated.put(key, info);
+                } else {
+                    updated.remove(key);
+                }
+            }
+            localCountryData = updated;
+        }
+        evictSharedEntries(event);
+        log.info("Applied dataset version {} ({} countries)", event.getVersion(), localCountryData.size());
+    }
+
+    /**
+     * Evict the shared Redis entries a dataset change affects. Every node does this after applying
+     * the change itself, so an entry repopulated by a node that was still on the old data is evicted
+     * again once that node catches up.
+     */
+    private void evictSharedEntries(DatasetChangedEvent event) {
+        Cache details = cacheManager.getCache("countryDetails");
+        if (details != null) {
+            if (event.isFullRebuild()) {
+                details.clear();
+            } else {
+                event.getChangedKeys().forEach(details::evict);
+            }
+        }
+        if (event.isMembershipChanged() || event.isFullRebuild()) {
+            clearCache("countryMatches");
+            clearCache("countries");
+        }
+    }
+
+    private void clearCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
     }
 
     /**
@@ -89,21 +341,17 @@ public class CountryDataService {
      * @param countryName Country name
      * @return CountryInfo object or null
      */
-    @Cacheable(value = "countryDetails", key = "#countryName.toLowerCase()")
+    @Cacheable(value = "countryDetails", key = "#countryName.toLowerCase()", unless = "#result == null")
     public CountryInfo getCountryInfo(String countryName) {
+        long start = System.nanoTime();
         String normalizedName = countryName.toLowerCase();
         
         try {
             // Try to get from external API first
             CountryInfo apiData = fetchFromExternalApi(normalizedName);
             if (apiData != null) {
-                // Enrich with local cultural data if available
-                if (localCountryData.containsKey(normalizedName)) {
-                    CountryInfo localData = localCountryData.get(normalizedName);
-                    apiData.setNationalAnimal(localData.getNationalAnimal());
-                    apiData.setNationalFlower(localData.getNationalFlower());
-                    apiData.setNationalBird(localData.getNationalBird());
-                }
+                enrichWithLocalData(apiData, normalizedName);
+                recordCacheLoad("countryDetails", "api", start, normalizedName);
                 return apiData;
             }
         } catch (Exception e) {
@@ -111,7 +359,126 @@ public class CountryDataService {
         }
         
         // Fallback to local data
-        return localCountryData.get(normalizedName);
+        CountryInfo localData = localCountryData.get(normalizedName);
+        recordCacheLoad("countryDetails", localData != null ? "local" : "none", start, normalizedName);
+        return localData;
+    }
+
+    /**
+     * Look up several countries in one call.
+     * Cache hits are answered directly; misses are fetched from the API in parallel, bounded by
+     * {@code chatbot.api.batch-parallelism}, enriched with local data and written back to the cache.
+     * Countries the API cannot provide fall back to local data or are reported as failures.
+     * @param countryNames Country names
+     * @return Resolved countries in request order and the ones that failed
+     */
+    public CountryBatchResponse getCountryInfos(Collection<String> countryNames) {
+        long start = System.nanoTime();
+        CountryBatchResponse result = new CountryBatchResponse();
+        Cache cache = cacheManager.getCache("countryDetails");
+        
+        Set<String> names = new LinkedHashSet<>();
+        for (String countryName : countryNames) {
+            names.add(countryName.trim().toLowerCase());
+        }
+        
+        Map<String, CountryInfo> resolved = new HashMap<>();
+        Map<String, CompletableFuture<CountryInfo>> misses = new LinkedHashMap<>();
+        for (String name : names) {
+            CountryInfo cached = readCache(cache, name);
+            if (cached != null) {
+                resolved.put(name, cached);
+                result.setCacheHits(result.getCacheHits() + 1);
+            } else {
+                misses.put(name, CompletableFuture.supplyAsync(() -> fetchFromExternalApi(name), lookupExecutor));
+            }
+        }
+        
+        long deadline = start + TimeUnit.SECONDS.toNanos(batchTimeoutSeconds);
+        for (Map.Entry<String, CompletableFuture<CountryInfo>> miss : misses.entrySet()) {
+            String name = miss.getKey();
+            CountryBatchResponse.FailureReason reason;
+            try {
+                CountryInfo apiData;
+                // Lookups run on pool threads outside the turn, so the caller's wait is what the turn records
+                try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.COUNTRY_LOOKUP)) {
+                    apiData = miss.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                if (apiData != null) {
+                    enrichWithLocalData(apiData, name);
+                    resolved.put(name, apiData);
+                    writeCache(cache, name, apiData);
+                    result.setFetched(result.getFetched() + 1);
+                    recordCacheLoad("countryDetails", "api", start, name);
+                    continue;
+                }
+                reason = CountryBatchResponse.FailureReason.NOT_FOUND;
+            } catch (TimeoutException e) {
+                miss.getValue().cancel(true);
+                reason = CountryBatchResponse.FailureReason.TIMEOUT;
+            } catch (ExecutionException e) {
+                reason = e.getCause() != null && e.getCause().getCause() instanceof HttpClientErrorException.NotFound
+                        ? CountryBatchResponse.FailureReason.NOT_FOUND
+                        : CountryBatchResponse.FailureReason.UPSTREAM_ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reason = CountryBatchResponse.FailureReason.TIMEOUT;
+            }
+            
+            // Fallback to local data
+            CountryInfo localData = localCountryData.get(name);
+            if (localData != null) {
+                resolved.put(name, localData);
+                writeCache(cache, name, localData);
+                result.setFallbacks(result.getFallbacks() + 1);
+            } else {
+                result.getFailures().add(new CountryBatchResponse.Failure(name, reason));
+            }
+            recordCacheLoad("countryDetails", localData != null ? "local" : "none", start, name);
+        }
+        
+        for (String name : names) {
+            CountryInfo info = resolved.get(name);
+            if (info != null) {
+                result.getCountries().put(name, info);
+            }
+        }
+        log.debug("Batch lookup of {} countries: {} cached, {} fetched, {} local, {} failed", names.size(),
+                result.getCacheHits(), result.getFetched(), result.getFallbacks(), result.getFailures().size());
+        return result;
+    }
+    
+    private CountryInfo readCache(Cache cache, String name) {
+        if (cache == null) return null;
+        try {
+            return cache.get(name, CountryInfo.class);
+        } catch (RuntimeException e) {
+            log.warn("Cache read failed for {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void writeCache(Cache cache, String name, CountryInfo info) {
+        if (cache == null) return;
+        try {
+            cache.put(name, info);
+        } catch (RuntimeException e) {
+            log.warn("Cache write failed for {}: {}", name, e.getMessage());
+        }
+    }
+    
+    /**
+     * Add local cultural data, which the API does not provide
+     * @param apiData Country data from the API
+     * @param normalizedName Lower-case country name
+     */
+    private void enrichWithLocalData(CountryInfo apiData, String normalizedName) {
+        CountryInfo localData = localCountryData.get(normalizedName);
+        if (localData != null) {
+            apiData.setNationalAnimal(localData.getNationalAnimal());
+            apiData.setNationalFlower(localData.getNationalFlower());
+            apiData.setNationalBird(localData.getNationalBird());
+        }
     }
 
     /**
@@ -124,10 +491,10 @@ public class CountryDataService {
     private CountryInfo fetchFromExternalApi(String countryName) {
         try {
             String url = countriesApiUrl + "/name/" + countryName + "?fullText=true";
-            ResponseEntity<List> response = restTemplate.getForEntity(url, List.class);
+            ResponseEntity<List<Map<String, Object>>> response = callApi("name", url);
             
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null && !response.getBody().isEmpty()) {
-                Map<String, Object> countryData = (Map<String, Object>) response.getBody().get(0);
+                Map<String, Object> countryData = response.getBody().get(0);
                 
                 // Map API response to our model
                 CountryInfo info = new CountryInfo();
@@ -150,24 +517,25 @@ public class CountryDataService {
      */
     @Cacheable(value = "countryMatches", key = "#prefix.toLowerCase()")
     public String[] listCountriesWhichStartsWith(String prefix) {
+        long start = System.nanoTime();
         String prefixLower = prefix.toLowerCase();
         
         try {
             // Try API first for broader coverage
             String url = countriesApiUrl + "/all?fields=name";
-            ResponseEntity<List> response = restTemplate.getForEntity(url, List.class);
+            ResponseEntity<List<Map<String, Object>>> response = callApi("all", url);
             
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 List<String> apiCountries = response.getBody().stream()
                     .map(country -> {
-                        Map<String, Object> countryMap = (Map<String, Object>) country;
-                        Map<String, String> nameMap = (Map<String, String>) countryMap.get("name");
+                        Map<String, String> nameMap = (Map<String, String>) country.get("name");
                         return nameMap.get("common").toLowerCase();
                     })
                     .filter(name -> name.startsWith(prefixLower))
                     .collect(Collectors.toList());
                 
                 if (!apiCountries.isEmpty()) {
+                    recordCacheLoad("countryMatches", "api", start, null);
                     return apiCountries.toArray(new String[0]);
                 }
             }
@@ -176,9 +544,11 @@ public class CountryDataService {
         }
         
         // Fallback to local data
-        return localCountryData.keySet().stream()
+        String[] matches = localCountryData.keySet().stream()
             .filter(c -> c.startsWith(prefixLower))
             .toArray(String[]::new);
+        recordCacheLoad("countryMatches", "local", start, null);
+        return matches;
     }
 
     /**
@@ -187,21 +557,22 @@ public class CountryDataService {
      */
     @Cacheable(value = "countries")
     public String[] listAllCountries() {
+        long start = System.nanoTime();
         try {
             // Try API first
             String url = countriesApiUrl + "/all?fields=name";
-            ResponseEntity<List> response = restTemplate.getForEntity(url, List.class);
+            ResponseEntity<List<Map<String, Object>>> response = callApi("all", url);
             
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 List<String> apiCountries = response.getBody().stream()
                     .map(country -> {
-                        Map<String, Object> countryMap = (Map<String, Object>) country;
-                        Map<String, String> nameMap = (Map<String, String>) countryMap.get("name");
+                        Map<String, String> nameMap = (Map<String, String>) country.get("name");
                         return nameMap.get("common").toLowerCase();
                     })
                     .collect(Collectors.toList());
                 
                 if (!apiCountries.isEmpty()) {
+                    recordCacheLoad("countries", "api", start, null);
                     return apiCountries.toArray(new String[0]);
                 }
             }
@@ -210,6 +581,54 @@ public class CountryDataService {
         }
         
         // Fallback to local data
+        recordCacheLoad("countries", "local", start, null);
         return localCountryData.keySet().toArray(new String[0]);
     }
+    
+    /**
+     * Call the countries API, timing the request by endpoint and HTTP status
+     * @param endpoint Low-cardinality endpoint name
+     * @param url Request URL
+     * @return API response
+     */
+    private ResponseEntity<List<Map<String, Object>>> callApi(String endpoint, String url) {
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        try (TurnRecorder.Phase phase = turnRecorder.phase(TurnPhase.COUNTRY_LOOKUP)) {
+            ResponseEntity<List<Map<String, Object>>> response =
+                    restTemplate.exchange(url, HttpMethod.GET, null, COUNTRY_LIST_TYPE);
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+        } catch (RestClientResponseException e) {
+            status = String.valueOf(e.getStatusCode().value());
+            throw e;
+        } finally {
+            Timer.builder("chatbot.external.api")
+                    .description("Latency of countries API calls")
+                    .tags("endpoint", endpoint, "status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Record the time a cacheable method spent loading a value on a cache miss
+     * @param cache Cache name
+     * @param source Where the value came from: api, local (fallback) or none
+     * @param startNanos Load start time
+     * @param country Country key, only tagged when country tags are enabled
+     */
+    private void recordCacheLoad(String cache, String source, long startNanos, String country) {
+        Tags tags = Tags.of("cache", cache, "source", source);
+        if (countryTagsEnabled && country != null) {
+            tags = tags.and("country", country);
+        }
+        Timer.builder("chatbot.cache.load")
+                .description("Time spent loading values on cache misses")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
 }
\ No newline at end of file
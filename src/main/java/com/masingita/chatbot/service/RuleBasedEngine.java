@@ -1,11 +1,16 @@
 package com.masingita.chatbot.service;
 
 import com.masingita.chatbot.model.ConversationContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -19,6 +24,9 @@ public class RuleBasedEngine {
     @Autowired
     private ChatbotService chatbotService;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     private static final String WELCOME_MESSAGE = 
         "👋 Welcome to the Enhanced Country Chatbot! I can provide information about countries around the world.\n" +
         "Please enter a country name to get started.";
@@ -38,6 +46,19 @@ public class RuleBasedEngine {
         """;
     
     private static final Pattern OPTION_PATTERN = Pattern.compile("^[A-Ga-g]$");
+    
+    // "compare france and spain", "compare kenya, ghana and nigeria", "compare kenya vs ghana"
+    private static final Pattern COMPARE_PATTERN = Pattern.compile("^\\s*compare\\s+(.+)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARE_SEPARATOR = Pattern.compile("\\s*(?:,|\\bvs\\.?|\\bversus\\b|\\bwith\\b)\\s*(?:and\\s+)?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern AND_SEPARATOR = Pattern.compile("\\s+and\\s+", Pattern.CASE_INSENSITIVE);
+    // Names that contain "and" themselves are rejoined after splitting on it
+    private static final Set<String> NAMES_WITH_AND = Set.of(
+            "antigua and barbuda", "bosnia and herzegovina", "heard island and mcdonald islands",
+            "saint kitts and nevis", "saint pierre and miquelon", "saint vincent and the grenadines",
+            "sao tome and principe", "são tomé and príncipe", "south georgia and the south sandwich islands",
+            "svalbard and jan mayen", "trinidad and tobago", "wallis and futuna");
+    private static final int MAX_COMPARED_COUNTRIES = 6;
 
     /**
      * Process user input based on conversation context
@@ -46,6 +67,47 @@ public class RuleBasedEngine {
      * @return Chatbot response
      */
     public String processUserInput(String message, ConversationContext context) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String step = stepTag(message, context);
+        String option = "CHOOSE_OPTION".equals(step)
+                ? (OPTION_PATTERN.matcher(message).matches() ? message.toUpperCase() : "INVALID")
+                : "NONE";
+        try {
+            return dispatch(message, context);
+        } finally {
+            sample.stop(Timer.builder("chatbot.turn")
+                    .description("Time to process a chat turn in the rule-based engine")
+                    .tags("step", step, "option", option)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+    
+    /**
+     * Resolve a low-cardinality step tag for turn metrics
+     * @param message User message
+     * @param context Conversation context before the turn
+     * @return Step tag
+     */
+    private String stepTag(String message, ConversationContext context) {
+        if (message.equalsIgnoreCase("help") || message.equalsIgnoreCase("detailed")
+                || message.equalsIgnoreCase("simple")) {
+            return "COMMAND";
+        }
+        if (COMPARE_PATTERN.matcher(message).matches()) {
+            return "COMPARE";
+        }
+        String step = context.getCurrentStep();
+        if (step == null || context.getInteractionCount() == 0) {
+            return "WELCOME";
+        }
+        return switch (step) {
+            case "SELECT_COUNTRY", "CHOOSE_OPTION", "EXIT" -> step;
+            default -> "UNKNOWN";
+        };
+    }
+    
+    private String dispatch(String message, ConversationContext context) {
         // Track conversation state
         context.incrementInteraction();
         context.setLastQuery(message);
@@ -61,6 +123,16 @@ public class RuleBasedEngine {
             return "Simple mode activated. You'll receive basic information about countries.";
         }
         
+        // Comparisons are answered in a single turn; a conversation that opens with one continues
+        // with country selection instead of the welcome message
+        Matcher compare = COMPARE_PATTERN.matcher(message);
+        if (compare.matches()) {
+            if (context.getCurrentStep() == null) {
+                context.setCurrentStep("SELECT_COUNTRY");
+            }
+            return handleComparison(compare.group(1), context);
+        }
+        
         // Process based on conversation step
         String step = context.getCurrentStep();
         String response;
@@ -115,6 +187,55 @@ public class RuleBasedEngine {
         }
     }
     
+    /**
+     * Split the country list of a comparison request
+     * @param countryList Country names separated by commas, "vs", "versus", "with" or "and"
+     * @return Distinct country names in the order given
+     */
+    static List<String> parseComparedCountries(String countryList) {
+        List<String> names = new ArrayList<>();
+        for (String part : COMPARE_SEPARATOR.split(countryList)) {
+            String[] pieces = AND_SEPARATOR.split(part.trim());
+            for (int i = 0; i < pieces.length; i++) {
+                String name = pieces[i].trim();
+                if (i + 1 < pieces.length
+                        && NAMES_WITH_AND.contains((name + " and " + pieces[i + 1].trim()).toLowerCase())) {
+                    name = name + " and " + pieces[++i].trim();
+                }
+                if (!name.isEmpty() && !names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Handle a comparison request
+     * @param countryList Country names separated by commas, "vs", "versus", "with" or "and"
+     * @param context Conversation context
+     * @return Comparison table or usage hint
+     */
+    private String handleComparison(String countryList, ConversationContext context) {
+        List<String> countries = parseComparedCountries(countryList);
+        
+        if (countries.size() < 2 || countries.size() > MAX_COMPARED_COUNTRIES) {
+            return "To compare countries, name between 2 and " + MAX_COMPARED_COUNTRIES +
+                   ", e.g. \"compare France and Spain\".";
+        }
+        
+        try {
+            String comparison = chatbotService.compareCountries(countries);
+            if ("CHOOSE_OPTION".equals(context.getCurrentStep())) {
+                return comparison + "\n\n" + String.format(COUNTRY_OPTIONS_MESSAGE, context.getSelectedCountry());
+            }
+            return comparison;
+        } catch (Exception e) {
+            log.error("Error comparing countries {}: {}", countries, e.getMessage(), e);
+            return "I couldn't compare those countries right now. Please try again.";
+        }
+    }
+    
     /**
      * Handle option selection phase
      * @param message User message
@@ -180,7 +301,8 @@ public class RuleBasedEngine {
         
         if ("SELECT_COUNTRY".equals(step)) {
             return "Please enter the name of a country you'd like to learn about. " +
-                   "I'll tell you about its capital, national symbols, and more!";
+                   "I'll tell you about its capital, national symbols, and more!\n" +
+                   "You can also compare countries, e.g. \"compare France and Spain\".";
         } else if ("CHOOSE_OPTION".equals(step)) {
             return "Please select an option (A-G) to learn about " + context.getSelectedCountry() + 
                    ".\n\n" + String.format(COUNTRY_OPTIONS_MESSAGE, context.getSelectedCountry());
@@ -0,0 +1,130 @@
+package com.masingita.chatbot.cache;
+
+import com.masingita.chatbot.model.ConversationContext;
+import com.masingita.chatbot.model.ConversationHistory;
+import com.masingita.chatbot.model.CountryInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCacheSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer();
+
+    @ParameterizedTest
+    @EnumSource(CacheCodec.class)
+    void roundTripsCountryInfo(CacheCodec codec) {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(codec, 1024);
+        CountryInfo country = country();
+
+        assertThat(serializer.deserialize(serializer.serialize(country))).isEqualTo(country);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CacheCodec.class)
+    void roundTripsStringArrays(CacheCodec codec) {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(codec, 1024);
+        String[] matches = {"spain", "sweden", "switzerland"};
+
+        assertThat((String[]) serializer.deserialize(serializer.serialize(matches))).containsExactly(matches);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void roundTripsStringsWithAndWithoutDeflate(int compressionThreshold) {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(CacheCodec.SMILE, compressionThreshold);
+        String[] matches = {"south africa", "south korea", "south sudan"};
+
+        assertThat((String[]) serializer.deserialize(serializer.serialize(matches))).containsExactly(matches);
+        assertThat(serializer.deserialize(serializer.serialize("south africa"))).isEqualTo("south africa");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CacheCodec.class, names = {"SMILE", "CBOR"})
+    void roundTripsValuesWithJavaTimeFields(CacheCodec codec) {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(codec, 0);
+        ConversationContext context = new ConversationContext();
+        context.setCurrentStep("CHOOSE_OPTION");
+        context.setSelectedCountry("kenya");
+        context.setInteractionCount(3);
+
+        ConversationHistory history = new ConversationHistory();
+        history.setSessionId("session-1");
+        history.setUserId("alice");
+        history.setContext(context);
+        history.setLastUpdated(LocalDateTime.of(2024, 5, 1, 12, 45));
+        history.addMessage("user", "kenya");
+        history.addMessage("bot", "What would you like to know about kenya?");
+
+        byte[] encoded = serializer.serialize(history);
+
+        assertThat(encoded[3]).isEqualTo(CompactCacheSerializer.TYPE_CLASS_NAME);
+        assertThat(serializer.deserialize(encoded)).isEqualTo(history);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CacheCodec.class, names = {"SMILE", "CBOR"})
+    void readsLegacyJsonEntries(CacheCodec codec) {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(codec, 1024);
+        CountryInfo country = country();
+        String[] matches = {"spain", "sweden"};
+
+        assertThat(serializer.deserialize(legacySerializer.serialize(country))).isEqualTo(country);
+        assertThat((String[]) serializer.deserialize(legacySerializer.serialize(matches))).containsExactly(matches);
+        assertThat(serializer.deserialize(legacySerializer.serialize("spain"))).isEqualTo("spain");
+    }
+
+    @Test
+    void jsonCodecKeepsLegacyFormat() {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(CacheCodec.JSON, 1024);
+        CountryInfo country = country();
+
+        byte[] encoded = serializer.serialize(country);
+
+        assertThat(encoded[0]).isNotEqualTo(CompactCacheSerializer.MAGIC);
+        assertThat(legacySerializer.deserialize(encoded)).isEqualTo(country);
+    }
+
+    @Test
+    void compactEntriesAreSmallerThanLegacyJson() {
+        CountryInfo country = country();
+
+        assertThat(new CompactCacheSerializer(CacheCodec.SMILE, -1).serialize(country).length)
+                .isLessThan(legacySerializer.serialize(country).length);
+    }
+
+    @Test
+    void unknownFormatVersionIsTreatedAsMiss() {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(CacheCodec.SMILE, 1024);
+        byte[] encoded = serializer.serialize(country());
+        encoded[1] = (byte) (CompactCacheSerializer.FORMAT_VERSION + 1);
+
+        assertThat(serializer.deserialize(encoded)).isNull();
+    }
+
+    private static CountryInfo country() {
+        CountryInfo country = CountryInfo.builder()
+                .name("south africa")
+                .capital("Pretoria")
+                .nationalAnimal("Springbok")
+                .nationalFlower("King Protea")
+                .languages(List.of("English", "Zulu", "Xhosa"))
+                .currencies(List.of("South African rand"))
+                .borders(List.of("BWA", "NAM", "ZWE"))
+                .timezones(List.of("UTC+02:00"))
+                .majorCities(List.of("Johannesburg", "Cape Town", "Durban"))
+                .touristAttractions(List.of("Table Mountain", "Kruger National Park"))
+                .coatOfArms(Map.of("png", "https://mainfacts.com/media/images/coats_of_arms/za.png"))
+                .build();
+        country.enrichFromExternalData(Map.of("region", "Africa", "population", 59308690, "area", 1221037.0));
+        return country;
+    }
+}
@@ -0,0 +1,97 @@
+package com.masingita.chatbot.controller;
+
+import com.masingita.chatbot.model.ApiTokenResponse;
+import com.masingita.chatbot.security.ApiTokenService;
+import com.masingita.chatbot.service.ChatSessions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiTokenControllerTest {
+
+    private ApiTokenService apiTokenService;
+    private ApiTokenController controller;
+
+    @BeforeEach
+    void setUp() {
+        apiTokenService = new ApiTokenService();
+        ReflectionTestUtils.setField(apiTokenService, "ttlSeconds", 900L);
+        ReflectionTestUtils.setField(apiTokenService, "maxSessionSeconds", 43200L);
+        ReflectionTestUtils.setField(apiTokenService, "issuer", "chatbot");
+        ReflectionTestUtils.setField(apiTokenService, "keySpecs",
+                new String[] {"k1:" + Base64.getEncoder().encodeToString(new byte[32])});
+        ReflectionTestUtils.setField(apiTokenService, "activeKeyId", "");
+        apiTokenService.init();
+
+        controller = new ApiTokenController();
+        ReflectionTestUtils.setField(controller, "apiTokenService", apiTokenService);
+    }
+
+    @Test
+    void bindsBrowserTokenToChatIdInsteadOfSessionId() {
+        MockHttpSession session = new MockHttpSession(null, "8E5C1F0A2B7D4E6F9A3C5B1D7E2F4A6C");
+        String chatId = ChatSessions.chatId(session);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+
+        ApiTokenResponse response = controller.issue(request, new UsernamePasswordAuthenticationToken("alice", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "SCOPE_profile")));
+
+        Jwt jwt = apiTokenService.getDecoder().decode(response.getToken());
+        assertThat(jwt.getClaimAsString(ApiTokenService.SESSION_CLAIM))
+                .isEqualTo(chatId)
+                .isNotEqualTo(session.getId());
+        assertThat(response.getToken()).doesNotContain(session.getId());
+        assertThat(jwt.getClaimAsStringList(ApiTokenService.ROLES_CLAIM)).containsExactly("ROLE_ADMIN");
+        assertThat(response.getTokenType()).isEqualTo("Bearer");
+        assertThat(response.getExpiresIn()).isEqualTo(900);
+        assertThat(session.getAttribute(ChatSessions.TOKEN_ISSUED_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    void refreshKeepsChatIdAndSignInTime() {
+        Instant authTime = Instant.now().minusSeconds(43200 - 300);
+        Jwt current = apiTokenService.getDecoder().decode(
+                apiTokenService.issue("alice", "chat-1", List.of("ROLE_USER"), authTime));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        ApiTokenResponse response = controller.issue(request, new JwtAuthenticationToken(current,
+                AuthorityUtils.createAuthorityList("ROLE_USER"), "alice"));
+
+        Jwt refreshed = apiTokenService.getDecoder().decode(response.getToken());
+        assertThat(refreshed.getClaimAsString(ApiTokenService.SESSION_CLAIM)).isEqualTo("chat-1");
+        assertThat(apiTokenService.getAuthTime(refreshed)).isEqualTo(apiTokenService.getAuthTime(current));
+        assertThat(response.getExpiresIn()).isBetween(298L, 300L);
+        assertThat(request.getSession(false)).isNull();
+    }
+
+    @Test
+    void refusesRefreshAfterMaximumSession() {
+        Jwt expired = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("alice")
+                .claim(ApiTokenService.SESSION_CLAIM, "chat-1")
+                .claim(ApiTokenService.AUTH_TIME_CLAIM, Instant.now().minusSeconds(43201).getEpochSecond())
+                .build();
+
+        assertThatThrownBy(() -> controller.issue(new MockHttpServletRequest(),
+                new JwtAuthenticationToken(expired, List.of(), "alice")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+}
@@ -0,0 +1,225 @@
+package com.masingita.chatbot.loadtest;
+
+import com.masingita.chatbot.security.ApiTokenService;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * End-to-end load test of the chat endpoint against stubbed dependencies.
+ * Runs a latency/error-injecting countries API stub, embedded MongoDB and embedded Redis,
+ * drives scripted multi-turn conversations through the full filter chain and prints latency
+ * percentiles, throughput and outbound call counts. Every turn must succeed or be shed by the
+ * rate or concurrency limiter, which are the only sources of 429 and 503 responses with Retry-After.
+ *
+ * <p>Run with {@code mvn test -Pload-test}; tune with {@code -Dloadtest.conversations},
+ * {@code -Dloadtest.concurrency}, {@code -Dloadtest.stub.latency-ms},
+ * {@code -Dloadtest.stub.jitter-ms} and {@code -Dloadtest.stub.error-rate}.
+ * {@code -Dloadtest.auth=token} sends bearer API tokens instead of session cookies, so the two
+ * authentication modes can be compared end to end.</p>
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.security.oauth2.client.registration.google.client-id=load-test",
+        "spring.security.oauth2.client.registration.google.client-secret=load-test",
+        "spring.security.oauth2.client.registration.github.client-id=load-test",
+        "spring.security.oauth2.client.registration.github.client-secret=load-test",
+        "chatbot.security.rate-limit.limit=100000",
+        "logging.level.com.masingita.chatbot=INFO"
+})
+@AutoConfigureMockMvc
+class ChatLoadTest {
+
+    private static final int CONVERSATIONS = Integer.getInteger("loadtest.conversations", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final boolean TOKEN_AUTH = "token".equalsIgnoreCase(System.getProperty("loadtest.auth", "session"));
+    private static final Set<Integer> EXPECTED_STATUSES = Set.of(200, 429, 503);
+
+    private static CountriesApiStub countriesApi;
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static RedisServer redisServer;
+    private static int redisPort;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApiTokenService apiTokenService;
+
+    // 429 and 503 responses without Retry-After did not come from a limiter
+    private final LongAdder unattributedRejections = new LongAdder();
+
+    @BeforeAll
+    static void startDependencies() throws IOException {
+        countriesApi = new CountriesApiStub(
+                Integer.getInteger("loadtest.stub.latency-ms", 20),
+                Integer.getInteger("loadtest.stub.jitter-ms", 10),
+                Double.parseDouble(System.getProperty("loadtest.stub.error-rate", "0.02")));
+        countriesApi.start();
+
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopDependencies() throws IOException {
+        if (redisServer != null) redisServer.stop();
+        if (mongod != null) mongod.close();
+        if (countriesApi != null) countriesApi.stop();
+    }
+
+    @DynamicPropertySource
+    static void dependencyProperties(DynamicPropertyRegistry registry) {
+        registry.add("chatbot.api.countries-url", () -> countriesApi.baseUrl());
+        registry.add("spring.data.mongodb.uri", () -> {
+            ServerAddress address = mongod.current().getServerAddress();
+            return "mongodb://" + address.getHost() + ":" + address.getPort() + "/chatbot-load";
+        });
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", () -> redisPort);
+    }
+
+    @Test
+    void scriptedConversations() throws Exception {
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        List<long[]> latencies = new ArrayList<>(CONVERSATIONS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(CONVERSATIONS);
+            for (int i = 0; i < CONVERSATIONS; i++) {
+                int conversation = i;
+                futures.add(executor.submit(() -> runConversation(conversation, statusCounts)));
+            }
+            for (Future<long[]> future : futures) {
+                latencies.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        String report = report(all, elapsedNanos, statusCounts);
+        System.out.println(report);
+        Files.writeString(Path.of("target", "load-test-report.txt"), report, StandardCharsets.UTF_8);
+
+        assertThat(all).hasSize(CONVERSATIONS * script(0).size());
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        assertThat(statuses.keySet()).as("response statuses %s", statuses).isSubsetOf(EXPECTED_STATUSES);
+        assertThat(statuses.getOrDefault(200, 0L)).as("successful turns").isPositive();
+        assertThat(unattributedRejections.sum()).as("rejections not sent by a limiter").isZero();
+    }
+
+    private long[] runConversation(int conversation, Map<Integer, LongAdder> statusCounts) throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        String userId = "load-user-" + conversation;
+        String token = TOKEN_AUTH ? apiTokenService.issue(userId, "load-" + conversation, List.of("ROLE_USER")) : null;
+        List<String> turns = script(conversation);
+        long[] latencies = new long[turns.size()];
+
+        for (int turn = 0; turn < turns.size(); turn++) {
+            String body = "{\"message\":\"" + turns.get(turn) + "\"}";
+            MockHttpServletRequestBuilder request = post("/api/chat")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body);
+            if (TOKEN_AUTH) {
+                request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            } else {
+                request.session(session).with(user(userId)).with(csrf());
+            }
+            long turnStart = System.nanoTime();
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+            latencies[turn] = System.nanoTime() - turnStart;
+            int status = response.getStatus();
+            statusCounts.computeIfAbsent(status, k -> new LongAdder()).increment();
+            if ((status == 429 || status == 503) && response.getHeader(HttpHeaders.RETRY_AFTER) == null) {
+                unattributedRejections.increment();
+            }
+        }
+        return latencies;
+    }
+
+    // Welcome, pick a country, browse options, switch country, exit
+    private static List<String> script(int conversation) {
+        List<String> countries = CountriesApiStub.COUNTRIES;
+        String first = countries.get(conversation % countries.size());
+        String second = countries.get((conversation * 7 + 3) % countries.size());
+        return List.of("hello", first, "A", "D", "detailed", "E", "F", second, "B", "G");
+    }
+
+    private String report(long[] sortedLatencies, long elapsedNanos, Map<Integer, LongAdder> statusCounts) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder builder = new StringBuilder();
+        builder.append("=== Chat load test ===\n");
+        builder.append(String.format("auth: %s, conversations: %d, concurrency: %d, turns: %d, elapsed: %.2fs%n",
+                TOKEN_AUTH ? "token" : "session", CONVERSATIONS, CONCURRENCY, sortedLatencies.length, seconds));
+        builder.append(String.format("throughput: %.1f turns/s, %.1f conversations/s%n",
+                sortedLatencies.length / seconds, CONVERSATIONS / seconds));
+        builder.append(String.format("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                percentile(sortedLatencies, 50), percentile(sortedLatencies, 90), percentile(sortedLatencies, 99),
+                percentile(sortedLatencies, 99.9), sortedLatencies[sortedLatencies.length - 1] / 1e6));
+
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        builder.append("responses by status: ").append(statuses).append('\n');
+
+        Map<String, Long> outbound = new TreeMap<>(countriesApi.callCounts());
+        long totalOutbound = outbound.values().stream().mapToLong(Long::longValue).sum();
+        builder.append("outbound API calls: ").append(totalOutbound).append(' ').append(outbound)
+                .append(String.format(" (%.3f per turn)%n", totalOutbound / (double) sortedLatencies.length));
+        return builder.toString();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}
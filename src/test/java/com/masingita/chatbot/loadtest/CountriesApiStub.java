@@ -0,0 +1,120 @@
+package com.masingita.chatbot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the restcountries v3.1 API with latency and error injection.
+ * Counts every call by endpoint so a load test can report outbound traffic.
+ */
+class CountriesApiStub {
+
+    static final List<String> COUNTRIES = List.of(
+            "argentina", "australia", "botswana", "brazil", "canada", "denmark", "egypt", "france",
+            "germany", "ghana", "india", "japan", "kenya", "mexico", "namibia", "nigeria", "norway",
+            "portugal", "rwanda", "south africa", "spain", "tanzania", "uganda", "zambia", "zimbabwe");
+
+    private final int latencyMillis;
+    private final int jitterMillis;
+    private final double errorRate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    CountriesApiStub(int latencyMillis, int jitterMillis, double errorRate) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v3.1/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v3.1";
+    }
+
+    Map<String, Long> callCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        calls.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+        return counts;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = URLDecoder.decode(exchange.getRequestURI().getPath(), StandardCharsets.UTF_8);
+        String endpoint = path.startsWith("/v3.1/name/") ? "name" : path.startsWith("/v3.1/all") ? "all" : "other";
+        calls.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(latencyMillis + (jitterMillis > 0 ? random.nextInt(jitterMillis) : 0));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (random.nextDouble() < errorRate) {
+            respond(exchange, 500, Map.of("status", 500, "message", "Injected failure"));
+            return;
+        }
+
+        switch (endpoint) {
+            case "all" -> {
+                List<Object> body = new ArrayList<>();
+                COUNTRIES.forEach(name -> body.add(Map.of("name", Map.of("common", name))));
+                respond(exchange, 200, body);
+            }
+            case "name" -> {
+                String name = path.substring("/v3.1/name/".length()).toLowerCase();
+                if (COUNTRIES.contains(name)) {
+                    respond(exchange, 200, List.of(country(name)));
+                } else {
+                    respond(exchange, 404, Map.of("status", 404, "message", "Not Found"));
+                }
+            }
+            default -> respond(exchange, 404, Map.of("status", 404, "message", "Not Found"));
+        }
+    }
+
+    private static Map<String, Object> country(String name) {
+        return Map.of(
+                "name", Map.of("common", name, "official", "Republic of " + name),
+                "capital", List.of("Capital of " + name),
+                "region", "Region",
+                "subregion", "Subregion",
+                "population", 1_000_000 + name.length() * 1_234_567L,
+                "area", 100_000.0 + name.length() * 10_000);
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
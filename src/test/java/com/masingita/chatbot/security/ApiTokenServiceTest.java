@@ -0,0 +1,102 @@
+package com.masingita.chatbot.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiTokenServiceTest {
+
+    private static final String KEY_1 = "k1:" + secret('1');
+    private static final String KEY_2 = "k2:" + secret('2');
+    private static final long MAX_SESSION_SECONDS = 43200;
+
+    @Test
+    void issuesTokenCarryingUserChatIdAndRoles() {
+        ApiTokenService service = service("", KEY_1);
+
+        Jwt jwt = service.getDecoder().decode(service.issue("alice", "chat-1", List.of("ROLE_ADMIN")));
+
+        assertThat(jwt.getSubject()).isEqualTo("alice");
+        assertThat(jwt.getClaimAsString(ApiTokenService.SESSION_CLAIM)).isEqualTo("chat-1");
+        assertThat(jwt.getClaimAsStringList(ApiTokenService.ROLES_CLAIM)).containsExactly("ROLE_ADMIN");
+        assertThat(jwt.getHeaders()).containsEntry("kid", "k1");
+    }
+
+    @Test
+    void capsExpiryByMaximumSession() {
+        ApiTokenService service = service("", KEY_1);
+        Instant authTime = Instant.now().minusSeconds(MAX_SESSION_SECONDS - 60);
+
+        Jwt jwt = service.getDecoder().decode(service.issue("alice", "chat-1", List.of(), authTime));
+
+        assertThat(service.getExpiresInSeconds(authTime)).isBetween(58L, 60L);
+        assertThat(jwt.getExpiresAt()).isBefore(Instant.now().plusSeconds(61));
+        assertThat(service.getAuthTime(jwt)).isEqualTo(Instant.ofEpochSecond(authTime.getEpochSecond()));
+    }
+
+    @Test
+    void refusesRefreshOnceMaximumSessionHasPassed() {
+        ApiTokenService service = service("", KEY_1);
+
+        assertThat(service.isRefreshable(token(Instant.now().minusSeconds(MAX_SESSION_SECONDS - 60)))).isTrue();
+        assertThat(service.isRefreshable(token(Instant.now().minusSeconds(MAX_SESSION_SECONDS + 1)))).isFalse();
+        assertThat(service.getExpiresInSeconds(Instant.now().minusSeconds(MAX_SESSION_SECONDS + 1))).isZero();
+    }
+
+    @Test
+    void acceptsTokensSignedWithRetiredKey() {
+        String token = service("", KEY_1).issue("alice", "chat-1", List.of());
+
+        ApiTokenService rotated = service("k2", KEY_2, KEY_1);
+
+        assertThat(rotated.getDecoder().decode(token).getSubject()).isEqualTo("alice");
+    }
+
+    @Test
+    void rejectsTokensSignedWithUnknownKey() {
+        String token = service("", KEY_1).issue("alice", "chat-1", List.of());
+
+        ApiTokenService other = service("", KEY_2);
+
+        assertThatThrownBy(() -> other.getDecoder().decode(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsShortKeys() {
+        String shortKey = "k1:" + Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThatThrownBy(() -> service("", shortKey)).isInstanceOf(IllegalStateException.class);
+    }
+
+    static ApiTokenService service(String activeKeyId, String... keySpecs) {
+        ApiTokenService service = new ApiTokenService();
+        ReflectionTestUtils.setField(service, "ttlSeconds", 900L);
+        ReflectionTestUtils.setField(service, "maxSessionSeconds", MAX_SESSION_SECONDS);
+        ReflectionTestUtils.setField(service, "issuer", "chatbot");
+        ReflectionTestUtils.setField(service, "keySpecs", keySpecs);
+        ReflectionTestUtils.setField(service, "activeKeyId", activeKeyId);
+        service.init();
+        return service;
+    }
+
+    private static Jwt token(Instant authTime) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("alice")
+                .issuedAt(Instant.now())
+                .claim(ApiTokenService.AUTH_TIME_CLAIM, authTime.getEpochSecond())
+                .build();
+    }
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+}
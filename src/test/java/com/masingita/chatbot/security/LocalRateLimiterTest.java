@@ -0,0 +1,102 @@
+package com.masingita.chatbot.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimiterTest {
+
+    /** 5 requests per 50 seconds: one token every 10 seconds. */
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void allowsBurstUpToLimit() {
+        LocalRateLimiter limiter = new LocalRateLimiter(5, 50, 10, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL_NANOS);
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        LocalRateLimiter limiter = new LocalRateLimiter(5, 50, 10, clock::get);
+        exhaust(limiter, "a");
+
+        clock.addAndGet(INTERVAL_NANOS / 2);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL_NANOS / 2);
+
+        clock.addAndGet(INTERVAL_NANOS / 2);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL_NANOS);
+    }
+
+    @Test
+    void refillNeverExceedsLimit() {
+        LocalRateLimiter limiter = new LocalRateLimiter(5, 50, 10, clock::get);
+        exhaust(limiter, "a");
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void reportsKeysBeyondCapAsUntracked() {
+        LocalRateLimiter limiter = new LocalRateLimiter(5, 50, 2, clock::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.tryAcquire("c")).isEqualTo(LocalRateLimiter.UNTRACKED);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsOnlyRefilledBuckets() {
+        LocalRateLimiter limiter = new LocalRateLimiter(5, 50, 2, clock::get);
+        limiter.tryAcquire("a");
+        exhaust(limiter, "b");
+
+        assertThat(limiter.evictIdle()).isZero();
+
+        clock.addAndGet(INTERVAL_NANOS);
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.tryAcquire("b")).isPositive();
+    }
+
+    @Test
+    void comparesArrivalTimesAcrossNanoTimeOverflow() {
+        clock.set(Long.MAX_VALUE - INTERVAL_NANOS / 2);
+        LocalRateLimiter limiter = new LocalRateLimiter(5, 50, 10, clock::get);
+        exhaust(limiter, "a");
+
+        assertThat(limiter.evictIdle()).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL_NANOS);
+
+        clock.addAndGet(INTERVAL_NANOS);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        clock.addAndGet(5 * INTERVAL_NANOS);
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+    }
+
+    private static void exhaust(LocalRateLimiter limiter, String key) {
+        while (limiter.tryAcquire(key) == 0) {
+            // Drain the burst
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.masingita.chatbot.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsOnceLocalBudgetIsSpent() {
+        RateLimiter rateLimiter = rateLimiter(false, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("ip:1", "ip")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("ip:1", "ip")).isCloseTo(1200L, within(1L));
+        assertThat(meterRegistry.counter("chatbot.ratelimit.rejected", "tier", "local", "key", "ip").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void keepsReadBudgetSeparate() {
+        RateLimiter rateLimiter = rateLimiter(false, 10);
+        while (rateLimiter.tryAcquire("ip:1", "ip") == 0) {
+            // Spend the chat budget
+        }
+
+        assertThat(rateLimiter.tryAcquireRead("ip:1", "ip")).isZero();
+    }
+
+    @Test
+    void rejectsUntrackedKeysWithoutClusterTier() {
+        RateLimiter rateLimiter = rateLimiter(false, 1);
+
+        assertThat(rateLimiter.tryAcquire("ip:1", "ip")).isZero();
+        assertThat(rateLimiter.tryAcquire("ip:2", "ip")).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToLocalLimitWhenRedisFails() {
+        RateLimiter rateLimiter = rateLimiter(true, 1);
+
+        assertThat(rateLimiter.tryAcquire("ip:1", "ip")).isZero();
+        assertThat(rateLimiter.tryAcquire("ip:2", "ip")).isZero();
+        assertThat(meterRegistry.counter("chatbot.ratelimit.errors").count()).isEqualTo(2);
+    }
+
+    @Test
+    void sweepDropsRefilledBuckets() {
+        RateLimiter rateLimiter = rateLimiter(false, 1);
+        ReflectionTestUtils.setField(rateLimiter, "durationSeconds", 0L);
+        rateLimiter.init();
+        rateLimiter.tryAcquire("ip:1", "ip");
+
+        rateLimiter.sweepLocalBuckets();
+
+        assertThat(rateLimiter.tryAcquire("ip:2", "ip")).isZero();
+    }
+
+    private RateLimiter rateLimiter(boolean clusterEnabled, int maxLocalKeys) {
+        RateLimiter rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "limit", 3);
+        ReflectionTestUtils.setField(rateLimiter, "readLimit", 3);
+        ReflectionTestUtils.setField(rateLimiter, "durationSeconds", 3600L);
+        ReflectionTestUtils.setField(rateLimiter, "maxLocalKeys", maxLocalKeys);
+        ReflectionTestUtils.setField(rateLimiter, "clusterEnabled", clusterEnabled);
+        ReflectionTestUtils.setField(rateLimiter, "redisTemplate", mock(StringRedisTemplate.class, invocation -> {
+            throw new RedisConnectionFailureException("Redis is down");
+        }));
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+        rateLimiter.init();
+        return rateLimiter;
+    }
+}
@@ -0,0 +1,89 @@
+package com.masingita.chatbot.service;
+
+import com.masingita.chatbot.model.ConversationContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RuleBasedEngineTest {
+
+    private ChatbotService chatbotService;
+    private RuleBasedEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        chatbotService = mock(ChatbotService.class);
+        engine = new RuleBasedEngine();
+        ReflectionTestUtils.setField(engine, "chatbotService", chatbotService);
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "france and spain                  | france;spain",
+            "kenya, ghana and nigeria          | kenya;ghana;nigeria",
+            "france, spain, and italy          | france;spain;italy",
+            "kenya vs ghana                    | kenya;ghana",
+            "kenya vs. ghana versus togo       | kenya;ghana;togo",
+            "kenya with ghana                  | kenya;ghana",
+            "bosnia and herzegovina, croatia   | bosnia and herzegovina;croatia",
+            "bosnia and herzegovina and serbia | bosnia and herzegovina;serbia",
+            "trinidad and tobago vs jamaica    | trinidad and tobago;jamaica",
+            "kenya, kenya and ghana            | kenya;ghana",
+            "kenya                             | kenya"
+    })
+    void parsesComparedCountries(String countryList, String expected) {
+        assertThat(RuleBasedEngine.parseComparedCountries(countryList))
+                .containsExactly(expected.split(";"));
+    }
+
+    @Test
+    void ignoresEmptyNames() {
+        assertThat(RuleBasedEngine.parseComparedCountries("kenya, , ghana,")).containsExactly("kenya", "ghana");
+    }
+
+    @Test
+    void comparisonAsFirstMessageContinuesWithCountrySelection() {
+        when(chatbotService.compareCountries(anyList())).thenReturn("comparison");
+        when(chatbotService.listCountriesWhichStartsWith("kenya")).thenReturn(new String[] {"kenya"});
+        ConversationContext context = new ConversationContext();
+
+        String comparison = engine.processUserInput("compare kenya, ghana and nigeria", context);
+        String selection = engine.processUserInput("kenya", context);
+
+        assertThat(comparison).isEqualTo("comparison");
+        assertThat(selection).startsWith("Selected kenya.");
+        assertThat(context.getCurrentStep()).isEqualTo("CHOOSE_OPTION");
+    }
+
+    @Test
+    void rejectsComparisonOfASingleCountry() {
+        String response = engine.processUserInput("compare kenya", new ConversationContext());
+
+        assertThat(response).startsWith("To compare countries");
+    }
+
+    @Test
+    void comparisonKeepsTheSelectedCountryMenu() {
+        when(chatbotService.compareCountries(List.of("kenya", "ghana"))).thenReturn("comparison");
+        ConversationContext context = new ConversationContext();
+        context.setCurrentStep("CHOOSE_OPTION");
+        context.setSelectedCountry("togo");
+        context.setInteractionCount(3);
+
+        String response = engine.processUserInput("compare kenya vs ghana", context);
+
+        assertThat(response).startsWith("comparison").contains("What would you like to know about togo?");
+        assertThat(context.getCurrentStep()).isEqualTo("CHOOSE_OPTION");
+    }
+}